@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Shared helpers for the startup benchmark and CDS training scripts.
+
+BENCH_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+SAMPLE_CSV="$BENCH_DIR/sample-transactions.csv"
+SAMPLE_GOAL='{"goalText":"Save $5000 in 6 months"}'
+MAIN_CLASS="com.panw.hackathon.GoalForecastApplication"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# wait_for_health <port> <pid> [timeout seconds]
+wait_for_health() {
+    local port="$1" pid="$2" deadline=$(( $(date +%s) + ${3:-60} ))
+    until curl -sf -o /dev/null "http://localhost:$port/actuator/health"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process $pid exited before becoming healthy" >&2
+            return 1
+        fi
+        if [ "$(date +%s)" -ge "$deadline" ]; then
+            echo "timed out waiting for port $port" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+}
+
+port_in_use() {
+    (exec 3<>"/dev/tcp/127.0.0.1/$1") 2>/dev/null
+}
+
+# wait_for_port_free <port> [timeout seconds]; a leftover server would otherwise answer health checks
+wait_for_port_free() {
+    local port="$1" deadline=$(( $(date +%s) + ${2:-30} ))
+    while port_in_use "$port"; do
+        if [ "$(date +%s)" -ge "$deadline" ]; then
+            echo "port $port is still in use" >&2
+            return 1
+        fi
+        sleep 0.1
+    done
+}
+
+# post_analyze <port> -> prints total request time in seconds
+post_analyze() {
+    curl -sf -o /dev/null -w '%{time_total}' \
+        -F "file=@$SAMPLE_CSV" \
+        -F "goal=$SAMPLE_GOAL;type=application/json" \
+        "http://localhost:$1/api/forecast/analyze"
+}
+
+post_solve() {
+    curl -sf -o /dev/null -w '%{time_total}' \
+        -F "file=@$SAMPLE_CSV" \
+        -F "goal=$SAMPLE_GOAL;type=application/json" \
+        "http://localhost:$1/api/forecast/solve"
+}
+
+# Flags that keep admission control out of the way of benchmark traffic
+BENCH_APP_ARGS=(--forecast.admission.rate-per-minute=0 --forecast.admission.max-queued=1000)
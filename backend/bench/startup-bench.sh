@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Compares startup time and first-request latency of the available launch modes:
+#   jar     plain executable jar
+#   aot     same jar with -Dspring.aot.enabled=true (jar built with -Paot)
+#   cds     exploded app with the trained AppCDS archive (built with -Pcds, AOT too if -Paot,cds)
+#   native  GraalVM native executable (built with mvn -Pnative native:compile)
+# Usage (from backend/): mvn -Paot,cds package && bench/startup-bench.sh [runs]
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+RUNS="${1:-5}"
+PORT="${BENCH_PORT:-18081}"
+TARGET="$BENCH_DIR/../target"
+JAR="$(ls "$TARGET"/goal-forecasting-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)"
+NATIVE="$TARGET/goal-forecasting"
+
+if [ -z "$JAR" ] && [ ! -x "$NATIVE" ]; then
+    echo "Nothing to benchmark; build with mvn -Paot,cds package first." >&2
+    exit 1
+fi
+
+modes=()
+[ -n "$JAR" ] && modes+=(jar)
+if [ -n "$JAR" ] && jar -tf "$JAR" | grep -q '__ApplicationContextInitializer.class'; then modes+=(aot); fi
+[ -s "$TARGET/cds/app.jsa" ] && modes+=(cds)
+[ -x "$NATIVE" ] && modes+=(native)
+
+# Each branch execs, so the background job's PID is the server itself and kill stops it
+launch() {
+    case "$1" in
+        jar)    exec java -jar "$JAR" --server.port="$PORT" "${BENCH_APP_ARGS[@]}" ;;
+        aot)    exec java -Dspring.aot.enabled=true -jar "$JAR" --server.port="$PORT" "${BENCH_APP_ARGS[@]}" ;;
+        cds)    exec java -XX:SharedArchiveFile="$TARGET/cds/app.jsa" $(cat "$TARGET/cds/java-opts") \
+                    -cp "$(cat "$TARGET/cds/classpath")" "$MAIN_CLASS" --server.port="$PORT" "${BENCH_APP_ARGS[@]}" ;;
+        native) exec "$NATIVE" --server.port="$PORT" "${BENCH_APP_ARGS[@]}" ;;
+    esac
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+printf '%-8s %14s %18s %19s\n' mode startup_ms first_analyze_ms second_analyze_ms
+for mode in "${modes[@]}"; do
+    startup=() first=() second=()
+    for _ in $(seq 1 "$RUNS"); do
+        wait_for_port_free "$PORT" 30
+        start=$(now_ms)
+        launch "$mode" >/dev/null 2>&1 &
+        pid=$!
+        wait_for_health "$PORT" "$pid" 120
+        startup+=($(( $(now_ms) - start )))
+        first+=("$(post_analyze "$PORT" | awk '{ printf "%.1f", $1 * 1000 }')")
+        second+=("$(post_analyze "$PORT" | awk '{ printf "%.1f", $1 * 1000 }')")
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+    done
+    printf '%-8s %14s %18s %19s\n' "$mode" \
+        "$(printf '%s\n' "${startup[@]}" | median)" \
+        "$(printf '%s\n' "${first[@]}" | median)" \
+        "$(printf '%s\n' "${second[@]}" | median)"
+done
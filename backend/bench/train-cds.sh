@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive (target/cds/app.jsa) for the exploded application by recording
+# the classes loaded while serving a sample /analyze and /solve workload.
+# Invoked by the cds Maven profile: mvn -Pcds package (or -Paot,cds to train the AOT variant).
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+JAR="$(cd "$(dirname "$1")" && pwd)/$(basename "$1")"
+OUT="$(dirname "$JAR")/cds"
+PORT="${CDS_TRAIN_PORT:-18080}"
+REQUESTS="${CDS_TRAIN_REQUESTS:-50}"
+
+# CDS only archives classes loaded from jar files, so repack the application classes
+# and pin the classpath order; the benchmark must launch with exactly this classpath.
+rm -rf "$OUT" && mkdir -p "$OUT/app"
+(cd "$OUT/app" && jar -xf "$JAR")
+jar -cf "$OUT/application.jar" -C "$OUT/app/BOOT-INF/classes" .
+CP="$OUT/application.jar"
+for lib in $(ls "$OUT"/app/BOOT-INF/lib/*.jar | sort); do
+    CP="$CP:$lib"
+done
+echo "$CP" > "$OUT/classpath"
+
+JAVA_OPTS=""
+if ls "$OUT"/app/BOOT-INF/classes/com/panw/hackathon/*__ApplicationContextInitializer.class >/dev/null 2>&1; then
+    JAVA_OPTS="-Dspring.aot.enabled=true"
+fi
+echo "$JAVA_OPTS" > "$OUT/java-opts"
+
+wait_for_port_free "$PORT" 30
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" $JAVA_OPTS -cp "$CP" "$MAIN_CLASS" \
+    --server.port="$PORT" "${BENCH_APP_ARGS[@]}" \
+    --management.endpoint.shutdown.enabled=true \
+    --management.endpoints.web.exposure.include=health,shutdown &
+PID=$!
+trap 'kill "$PID" 2>/dev/null || true' EXIT
+
+wait_for_health "$PORT" "$PID" 120
+for _ in $(seq 1 "$REQUESTS"); do
+    post_analyze "$PORT" >/dev/null
+done
+post_solve "$PORT" >/dev/null
+
+# A clean context shutdown lets the JVM exit normally, which is when the archive is written
+curl -sf -o /dev/null -X POST "http://localhost:$PORT/actuator/shutdown"
+wait "$PID" || true
+trap - EXIT
+
+if [ ! -s "$OUT/app.jsa" ]; then
+    echo "CDS archive was not written" >&2
+    exit 1
+fi
+echo "CDS archive: $OUT/app.jsa"
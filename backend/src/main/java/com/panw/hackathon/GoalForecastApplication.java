@@ -2,8 +2,10 @@ package com.panw.hackathon;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GoalForecastApplication {
     public static void main(String[] args) {
         SpringApplication.run(GoalForecastApplication.class, args);
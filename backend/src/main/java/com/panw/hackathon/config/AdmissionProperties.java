@@ -0,0 +1,46 @@
+package com.panw.hackathon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits for the upload/analysis endpoints, bound from forecast.admission.* in application.properties.
+ * Upload byte caps are the standard spring.servlet.multipart.* settings.
+ */
+@Component
+@ConfigurationProperties(prefix = "forecast.admission")
+public class AdmissionProperties {
+    private int maxRows = 200_000;
+    private int maxConcurrent = 4;
+    private int maxQueued = 16;
+    private Duration queueTimeout = Duration.ofSeconds(2);
+
+    private double ratePerMinute = 30;
+    private int burst = 10;
+    private String apiKeyHeader = "X-API-Key";
+    private List<String> apiKeys = new ArrayList<>();
+    private int maxTrackedClients = 100_000;
+
+    public int getMaxRows() { return maxRows; }
+    public void setMaxRows(int maxRows) { this.maxRows = maxRows; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+    public int getMaxQueued() { return maxQueued; }
+    public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+    public Duration getQueueTimeout() { return queueTimeout; }
+    public void setQueueTimeout(Duration queueTimeout) { this.queueTimeout = queueTimeout; }
+    public double getRatePerMinute() { return ratePerMinute; }
+    public void setRatePerMinute(double ratePerMinute) { this.ratePerMinute = ratePerMinute; }
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+    public String getApiKeyHeader() { return apiKeyHeader; }
+    public void setApiKeyHeader(String apiKeyHeader) { this.apiKeyHeader = apiKeyHeader; }
+    public List<String> getApiKeys() { return apiKeys; }
+    public void setApiKeys(List<String> apiKeys) { this.apiKeys = apiKeys; }
+    public int getMaxTrackedClients() { return maxTrackedClients; }
+    public void setMaxTrackedClients(int maxTrackedClients) { this.maxTrackedClients = maxTrackedClients; }
+}
@@ -0,0 +1,36 @@
+package com.panw.hackathon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster mode settings, bound from forecast.cluster.* in application.properties.
+ * With enabled=false every dataset is owned by this instance. When enabled, sharedSecret must be
+ * set to the same value on every node; peers present it on internal and forwarded calls.
+ */
+@Component
+@ConfigurationProperties(prefix = "forecast.cluster")
+public class ClusterProperties {
+    private boolean enabled = false;
+    private String selfUrl = "http://localhost:8080";
+    private List<String> nodes = new ArrayList<>();
+    private int virtualNodes = 128;
+    private int cacheSize = 1_000;
+    private String sharedSecret = "";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getSelfUrl() { return selfUrl; }
+    public void setSelfUrl(String selfUrl) { this.selfUrl = selfUrl; }
+    public List<String> getNodes() { return nodes; }
+    public void setNodes(List<String> nodes) { this.nodes = nodes; }
+    public int getVirtualNodes() { return virtualNodes; }
+    public void setVirtualNodes(int virtualNodes) { this.virtualNodes = virtualNodes; }
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+    public String getSharedSecret() { return sharedSecret; }
+    public void setSharedSecret(String sharedSecret) { this.sharedSecret = sharedSecret; }
+}
@@ -0,0 +1,25 @@
+package com.panw.hackathon.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Tunes the single Spring-managed ObjectMapper used for request parts and responses.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Replaces reflective getter/setter calls with generated lambdas. Skipped in a native
+    // image, where runtime lambda generation is unavailable.
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            if (!NativeDetector.inNativeImage()) {
+                builder.postConfigurer(mapper -> mapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.panw.hackathon.config;
+
+import com.panw.hackathon.model.BaselineAggregates;
+import com.panw.hackathon.model.ForecastResult;
+import com.panw.hackathon.model.GoalRequest;
+import com.panw.hackathon.model.GoalStatusChangedEvent;
+import com.panw.hackathon.model.LeverPlan;
+import com.panw.hackathon.model.Suggestion;
+import com.panw.hackathon.model.WatchRequest;
+import com.panw.hackathon.model.WatchState;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for AOT/native builds: JSON models bound outside of typed controller signatures
+ * (request bodies read with ObjectMapper, peer hand-offs, webhook events) and the classpath
+ * rules file read by CategoryClassifier.
+ */
+@Configuration
+@RegisterReflectionForBinding({GoalRequest.class, ForecastResult.class, Suggestion.class, LeverPlan.class, BaselineAggregates.class,
+        WatchRequest.class, WatchState.class, GoalStatusChangedEvent.class})
+@ImportRuntimeHints(NativeHintsConfig.ResourceHints.class)
+public class NativeHintsConfig {
+
+    static class ResourceHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("category-rules.txt");
+        }
+    }
+}
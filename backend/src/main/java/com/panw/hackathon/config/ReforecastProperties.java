@@ -0,0 +1,37 @@
+package com.panw.hackathon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background re-forecast settings, bound from forecast.reforecast.* in application.properties.
+ * Every registered goal is looked at once per interval; the work is split into interval/tick slices.
+ * Webhooks may only target hosts in webhookAllowedHosts (none by default).
+ */
+@Component
+@ConfigurationProperties(prefix = "forecast.reforecast")
+public class ReforecastProperties {
+    private boolean enabled = true;
+    private Duration interval = Duration.ofMinutes(15);
+    private Duration tick = Duration.ofSeconds(1);
+    private Duration webhookTimeout = Duration.ofSeconds(5);
+    private List<String> webhookAllowedHosts = new ArrayList<>();
+    private int maxWatches = 500_000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+    public Duration getTick() { return tick; }
+    public void setTick(Duration tick) { this.tick = tick; }
+    public Duration getWebhookTimeout() { return webhookTimeout; }
+    public void setWebhookTimeout(Duration webhookTimeout) { this.webhookTimeout = webhookTimeout; }
+    public List<String> getWebhookAllowedHosts() { return webhookAllowedHosts; }
+    public void setWebhookAllowedHosts(List<String> webhookAllowedHosts) { this.webhookAllowedHosts = webhookAllowedHosts; }
+    public int getMaxWatches() { return maxWatches; }
+    public void setMaxWatches(int maxWatches) { this.maxWatches = maxWatches; }
+}
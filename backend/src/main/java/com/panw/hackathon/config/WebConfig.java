@@ -0,0 +1,25 @@
+package com.panw.hackathon.config;
+
+import com.panw.hackathon.controller.AdmissionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts admission control in front of the CSV upload endpoints.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    public WebConfig(AdmissionInterceptor admissionInterceptor) {
+        this.admissionInterceptor = admissionInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/forecast/analyze", "/api/forecast/solve", "/api/forecast/datasets");
+    }
+}
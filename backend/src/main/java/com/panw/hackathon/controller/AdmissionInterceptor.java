@@ -0,0 +1,38 @@
+package com.panw.hackathon.controller;
+
+import com.panw.hackathon.service.AdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the rate limit and takes an analysis slot before the handler runs. Multipart bodies are
+ * resolved lazily (spring.servlet.multipart.resolve-lazily), so a rejected upload is answered
+ * without the file being read or spooled first. The slot is released when the request completes.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admission;
+
+    public AdmissionInterceptor(AdmissionControl admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        admission.checkRate(admission.clientKey(request.getHeader(admission.getApiKeyHeader()), request.getRemoteAddr()));
+        request.setAttribute(PERMIT_ATTRIBUTE, admission.acquire());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionControl.Permit permit) {
+            permit.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.panw.hackathon.controller;
+
+import com.panw.hackathon.model.BaselineAggregates;
+import com.panw.hackathon.model.WatchState;
+import com.panw.hackathon.service.ClusterRouter;
+import com.panw.hackathon.service.DatasetCache;
+import com.panw.hackathon.service.ReforecastScheduler;
+import com.panw.hackathon.util.InvalidRequestException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Instance-to-instance endpoints for cluster mode. Always mapped (so AOT and native builds keep
+ * them), but they answer 404 unless cluster mode is enabled, and every call must carry the
+ * shared cluster secret (ClusterRouter.SECRET_HEADER).
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+public class ClusterController {
+
+    private final DatasetCache datasetCache;
+    private final ClusterRouter clusterRouter;
+    private final ReforecastScheduler reforecastScheduler;
+
+    public ClusterController(DatasetCache datasetCache, ClusterRouter clusterRouter,
+                             ReforecastScheduler reforecastScheduler) {
+        this.datasetCache = datasetCache;
+        this.clusterRouter = clusterRouter;
+        this.reforecastScheduler = reforecastScheduler;
+    }
+
+    @PutMapping("/datasets/{datasetId}")
+    public ResponseEntity<?> putDataset(@RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret,
+                                        @PathVariable String datasetId, @RequestBody BaselineAggregates aggregates) {
+        ResponseEntity<?> denied = checkPeer(secret);
+        if (denied != null) return denied;
+        if (!DatasetCache.isValidId(datasetId)) {
+            throw new InvalidRequestException("Invalid dataset id.");
+        }
+        datasetCache.put(datasetId, aggregates);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/datasets/{datasetId}/watches")
+    public ResponseEntity<?> putWatches(@RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret,
+                                        @PathVariable String datasetId, @RequestBody List<WatchState> watches) {
+        ResponseEntity<?> denied = checkPeer(secret);
+        if (denied != null) return denied;
+        if (!DatasetCache.isValidId(datasetId)) {
+            throw new InvalidRequestException("Invalid dataset id.");
+        }
+        reforecastScheduler.importWatches(datasetId, watches);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/members")
+    public ResponseEntity<?> members(@RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret) {
+        ResponseEntity<?> denied = checkPeer(secret);
+        if (denied != null) return denied;
+        return ResponseEntity.ok(clusterRouter.getMembers());
+    }
+
+    @PutMapping("/members")
+    public ResponseEntity<?> updateMembers(@RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret,
+                                           @RequestBody List<String> nodes) {
+        ResponseEntity<?> denied = checkPeer(secret);
+        if (denied != null) return denied;
+        clusterRouter.updateMembers(nodes);
+        return ResponseEntity.ok(clusterRouter.getMembers());
+    }
+
+    private ResponseEntity<?> checkPeer(String secret) {
+        if (!clusterRouter.isEnabled()) {
+            return ApiExceptionHandler.error(HttpStatus.NOT_FOUND, null);
+        }
+        if (!clusterRouter.isTrustedPeer(secret)) {
+            return ApiExceptionHandler.error(HttpStatus.FORBIDDEN, "Missing or invalid cluster secret.");
+        }
+        return null;
+    }
+}
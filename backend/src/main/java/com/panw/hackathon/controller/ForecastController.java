@@ -1,33 +1,222 @@
 package com.panw.hackathon.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.panw.hackathon.model.BaselineAggregates;
 import com.panw.hackathon.model.ForecastResult;
 import com.panw.hackathon.model.GoalRequest;
+import com.panw.hackathon.model.LeverPlan;
 import com.panw.hackathon.model.Transaction;
+import com.panw.hackathon.model.WatchRequest;
+import com.panw.hackathon.service.AdmissionControl;
+import com.panw.hackathon.service.ClusterRouter;
+import com.panw.hackathon.service.DatasetCache;
 import com.panw.hackathon.service.ForecastService;
+import com.panw.hackathon.service.GoalSolver;
+import com.panw.hackathon.service.ReforecastScheduler;
 import com.panw.hackathon.util.CsvParser;
+import com.panw.hackathon.util.InvalidRequestException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.io.IOException;
+import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/forecast")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class ForecastController {
 
+    private static final Pattern WATCH_ID = Pattern.compile("[0-9a-f-]{36}");
+
     private final ForecastService forecastService = new ForecastService();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GoalSolver goalSolver = new GoalSolver();
+    private final ObjectMapper objectMapper;
+    private final AdmissionControl admission;
+    private final DatasetCache datasetCache;
+    private final ClusterRouter clusterRouter;
+    private final ReforecastScheduler reforecastScheduler;
+
+    public ForecastController(ObjectMapper objectMapper, AdmissionControl admission,
+                              DatasetCache datasetCache, ClusterRouter clusterRouter,
+                              ReforecastScheduler reforecastScheduler) {
+        this.objectMapper = objectMapper;
+        this.admission = admission;
+        this.datasetCache = datasetCache;
+        this.clusterRouter = clusterRouter;
+        this.reforecastScheduler = reforecastScheduler;
+    }
 
     @PostMapping(value = "/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ForecastResult analyze(
             @RequestPart("file") MultipartFile file,
             @RequestPart("goal") String goalJson
     ) throws IOException {
-        List<Transaction> transactions = CsvParser.parseTransactions(file);
-        GoalRequest goal = objectMapper.readValue(goalJson, GoalRequest.class);
+        GoalRequest goal = validateRequest(goalJson, file);
+        List<Transaction> transactions = CsvParser.parseTransactions(file, admission.getMaxRows());
         return forecastService.analyze(transactions, goal);
     }
+
+    @PostMapping(value = "/solve", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public List<LeverPlan> solve(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart("goal") String goalJson
+    ) throws IOException {
+        GoalRequest goal = validateRequest(goalJson, file);
+        BaselineAggregates baseline = parseBaseline(file);
+        return goalSolver.solve(baseline, goal.getTargetAmount(), goal.getMonthsToDeadline());
+    }
+
+    /** Parses a CSV once and caches its aggregates on the owning instance. */
+    @PostMapping(value = "/datasets", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Map<String, String> uploadDataset(
+            @RequestPart("file") MultipartFile file
+    ) throws IOException {
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("Uploaded transactions file is empty.");
+        }
+        String datasetId = DatasetCache.idFor(file);
+        clusterRouter.store(datasetId, parseBaseline(file));
+        return Map.of("datasetId", datasetId, "owner", clusterRouter.ownerOf(datasetId));
+    }
+
+    @PostMapping(value = "/datasets/{datasetId}/analyze", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> analyzeDataset(
+            @PathVariable String datasetId,
+            @RequestBody String goalJson,
+            HttpServletRequest request
+    ) {
+        return onOwner(datasetId, "analyze", goalJson, request, forecastService::analyze);
+    }
+
+    @PostMapping(value = "/datasets/{datasetId}/solve", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> solveDataset(
+            @PathVariable String datasetId,
+            @RequestBody String goalJson,
+            HttpServletRequest request
+    ) {
+        return onOwner(datasetId, "solve", goalJson, request,
+                (baseline, goal) -> goalSolver.solve(baseline, goal.getTargetAmount(), goal.getMonthsToDeadline()));
+    }
+
+    /** Keeps re-evaluating a goal against this dataset in the background; see ReforecastScheduler. */
+    @PostMapping(value = "/datasets/{datasetId}/watches", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> watchDataset(
+            @PathVariable String datasetId,
+            @RequestBody String watchJson,
+            HttpServletRequest request
+    ) {
+        WatchRequest watch = readJson(watchJson, WatchRequest.class, "watch");
+        String webhookUrl = watch == null ? null : watch.getWebhookUrl();
+        return onOwner(datasetId, "watches", watchJson, request,
+                (baseline, goal) -> reforecastScheduler.register(datasetId, goal, webhookUrl));
+    }
+
+    @DeleteMapping("/datasets/{datasetId}/watches/{watchId}")
+    public ResponseEntity<?> unwatchDataset(
+            @PathVariable String datasetId,
+            @PathVariable String watchId,
+            HttpServletRequest request
+    ) {
+        validateDatasetId(datasetId);
+        if (!WATCH_ID.matcher(watchId).matches()) {
+            throw new InvalidRequestException("Invalid watch id.");
+        }
+        if (!fromPeer(request) && !clusterRouter.isLocal(datasetId)) {
+            return forwardToOwner(datasetId, "DELETE", "/api/forecast/datasets/" + datasetId + "/watches/" + watchId, "", request);
+        }
+        if (!reforecastScheduler.unregister(datasetId, watchId)) {
+            return ApiExceptionHandler.error(HttpStatus.NOT_FOUND, "Unknown watch.");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Runs the handler against the cached aggregates, forwarding to the owning instance when that is not us
+    private ResponseEntity<?> onOwner(String datasetId, String action, String goalJson, HttpServletRequest request,
+                                      BiFunction<BaselineAggregates, GoalRequest, Object> handler) {
+        boolean forwarded = fromPeer(request);
+        if (!forwarded) {
+            admission.checkRate(clientKey(request));
+        }
+        validateDatasetId(datasetId);
+        GoalRequest goal = parseGoal(goalJson);
+
+        if (!forwarded && !clusterRouter.isLocal(datasetId)) {
+            return forwardToOwner(datasetId, "POST", "/api/forecast/datasets/" + datasetId + "/" + action, goalJson, request);
+        }
+
+        BaselineAggregates baseline = datasetCache.get(datasetId);
+        if (baseline == null) {
+            return ApiExceptionHandler.error(HttpStatus.NOT_FOUND, "Unknown dataset; please upload it again.");
+        }
+        return ResponseEntity.ok(handler.apply(baseline, goal));
+    }
+
+    private ResponseEntity<?> forwardToOwner(String datasetId, String method, String path, String body,
+                                             HttpServletRequest request) {
+        String header = admission.getApiKeyHeader();
+        HttpResponse<String> resp;
+        try {
+            resp = clusterRouter.forward(clusterRouter.ownerOf(datasetId), method, path, body, header, request.getHeader(header));
+        } catch (IOException e) {
+            return ApiExceptionHandler.error(HttpStatus.BAD_GATEWAY, "Owner of this dataset is unreachable.");
+        }
+        return ResponseEntity.status(resp.statusCode()).contentType(MediaType.APPLICATION_JSON).body(resp.body());
+    }
+
+    private void validateDatasetId(String datasetId) {
+        if (!DatasetCache.isValidId(datasetId)) {
+            throw new InvalidRequestException("Invalid dataset id.");
+        }
+    }
+
+    // Requests relayed by another instance were already rate limited there; the header alone is not trusted
+    private boolean fromPeer(HttpServletRequest request) {
+        return clusterRouter.isTrustedPeer(request.getHeader(ClusterRouter.SECRET_HEADER));
+    }
+
+    // Rate limit and analysis slot were already taken by AdmissionInterceptor
+    private BaselineAggregates parseBaseline(MultipartFile file) throws IOException {
+        List<Transaction> transactions = CsvParser.parseTransactions(file, admission.getMaxRows());
+        return forecastService.computeBaseline(transactions);
+    }
+
+    // Validate the cheap parts first so a bad request never pays for CSV parsing
+    private GoalRequest validateRequest(String goalJson, MultipartFile file) {
+        GoalRequest resolved = parseGoal(goalJson);
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("Uploaded transactions file is empty.");
+        }
+        return resolved;
+    }
+
+    private GoalRequest parseGoal(String goalJson) {
+        GoalRequest goal = readJson(goalJson, GoalRequest.class, "goal");
+        if (goal == null) {
+            throw new InvalidRequestException("Missing goal.");
+        }
+        return forecastService.resolveGoal(goal);
+    }
+
+    // Only client-body parse failures are 400s; serialization errors elsewhere stay 500s
+    private <T> T readJson(String json, Class<T> type, String what) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed " + what + " JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        return admission.clientKey(request.getHeader(admission.getApiKeyHeader()), request.getRemoteAddr());
+    }
 }
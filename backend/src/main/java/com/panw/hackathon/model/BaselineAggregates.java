@@ -0,0 +1,55 @@
+package com.panw.hackathon.model;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-month aggregates of a transaction set that forecasting and solving work from,
+ * so the raw rows are not needed once a dataset has been ingested.
+ */
+public class BaselineAggregates {
+    private List<YearMonth> months; // baseline months, oldest first
+
+    private List<Double> monthlyIncome;
+    private List<Double> monthlyFixed;
+    private List<Double> monthlyVariable;
+
+    private Map<String, List<Double>> categorySpendPerMonth;
+
+    // Full history, one slot per calendar month from historyStart (gaps are zero)
+    private YearMonth historyStart;
+    private double[] historyIncome;
+    private Map<String, double[]> historySpendByCategory;
+
+    private double p10;
+    private double p50;
+    private double p90;
+
+    private long fingerprint; // content hash, stable across instances
+
+    public List<YearMonth> getMonths() { return months; }
+    public void setMonths(List<YearMonth> months) { this.months = months; }
+    public List<Double> getMonthlyIncome() { return monthlyIncome; }
+    public void setMonthlyIncome(List<Double> monthlyIncome) { this.monthlyIncome = monthlyIncome; }
+    public List<Double> getMonthlyFixed() { return monthlyFixed; }
+    public void setMonthlyFixed(List<Double> monthlyFixed) { this.monthlyFixed = monthlyFixed; }
+    public List<Double> getMonthlyVariable() { return monthlyVariable; }
+    public void setMonthlyVariable(List<Double> monthlyVariable) { this.monthlyVariable = monthlyVariable; }
+    public Map<String, List<Double>> getCategorySpendPerMonth() { return categorySpendPerMonth; }
+    public void setCategorySpendPerMonth(Map<String, List<Double>> categorySpendPerMonth) { this.categorySpendPerMonth = categorySpendPerMonth; }
+    public YearMonth getHistoryStart() { return historyStart; }
+    public void setHistoryStart(YearMonth historyStart) { this.historyStart = historyStart; }
+    public double[] getHistoryIncome() { return historyIncome; }
+    public void setHistoryIncome(double[] historyIncome) { this.historyIncome = historyIncome; }
+    public Map<String, double[]> getHistorySpendByCategory() { return historySpendByCategory; }
+    public void setHistorySpendByCategory(Map<String, double[]> historySpendByCategory) { this.historySpendByCategory = historySpendByCategory; }
+    public double getP10() { return p10; }
+    public void setP10(double p10) { this.p10 = p10; }
+    public double getP50() { return p50; }
+    public void setP50(double p50) { this.p50 = p50; }
+    public double getP90() { return p90; }
+    public void setP90(double p90) { this.p90 = p90; }
+    public long getFingerprint() { return fingerprint; }
+    public void setFingerprint(long fingerprint) { this.fingerprint = fingerprint; }
+}
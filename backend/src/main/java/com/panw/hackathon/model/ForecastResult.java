@@ -18,6 +18,7 @@ public class ForecastResult {
 
     private BigDecimal projectedMonthlyToGoal; // after buffer
     private BigDecimal forecastedBalanceAtDeadlineP50;
+    private List<BigDecimal> projectedCapacityPath; // seasonal forecast, one entry per month to deadline
 
     private List<Suggestion> suggestions;
 
@@ -43,6 +44,8 @@ public class ForecastResult {
     public void setProjectedMonthlyToGoal(BigDecimal projectedMonthlyToGoal) { this.projectedMonthlyToGoal = projectedMonthlyToGoal; }
     public BigDecimal getForecastedBalanceAtDeadlineP50() { return forecastedBalanceAtDeadlineP50; }
     public void setForecastedBalanceAtDeadlineP50(BigDecimal forecastedBalanceAtDeadlineP50) { this.forecastedBalanceAtDeadlineP50 = forecastedBalanceAtDeadlineP50; }
+    public List<BigDecimal> getProjectedCapacityPath() { return projectedCapacityPath; }
+    public void setProjectedCapacityPath(List<BigDecimal> projectedCapacityPath) { this.projectedCapacityPath = projectedCapacityPath; }
     public List<Suggestion> getSuggestions() { return suggestions; }
     public void setSuggestions(List<Suggestion> suggestions) { this.suggestions = suggestions; }
     public BigDecimal getMonthlyGap() { return monthlyGap; }
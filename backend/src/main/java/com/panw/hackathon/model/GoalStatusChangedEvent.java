@@ -0,0 +1,46 @@
+package com.panw.hackathon.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published (and posted to the watch's webhook) when a watched goal moves between
+ * on_track, borderline and off_track.
+ */
+public class GoalStatusChangedEvent {
+    private String watchId;
+    private String datasetId;
+    private String previousStatus;
+    private String status;
+    private BigDecimal requiredMonthly;
+    private Integer monthsToDeadline;
+    private Instant evaluatedAt;
+
+    public GoalStatusChangedEvent() {}
+
+    public GoalStatusChangedEvent(String watchId, String datasetId, String previousStatus, String status,
+                                  BigDecimal requiredMonthly, Integer monthsToDeadline, Instant evaluatedAt) {
+        this.watchId = watchId;
+        this.datasetId = datasetId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.requiredMonthly = requiredMonthly;
+        this.monthsToDeadline = monthsToDeadline;
+        this.evaluatedAt = evaluatedAt;
+    }
+
+    public String getWatchId() { return watchId; }
+    public void setWatchId(String watchId) { this.watchId = watchId; }
+    public String getDatasetId() { return datasetId; }
+    public void setDatasetId(String datasetId) { this.datasetId = datasetId; }
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public BigDecimal getRequiredMonthly() { return requiredMonthly; }
+    public void setRequiredMonthly(BigDecimal requiredMonthly) { this.requiredMonthly = requiredMonthly; }
+    public Integer getMonthsToDeadline() { return monthsToDeadline; }
+    public void setMonthsToDeadline(Integer monthsToDeadline) { this.monthsToDeadline = monthsToDeadline; }
+    public Instant getEvaluatedAt() { return evaluatedAt; }
+    public void setEvaluatedAt(Instant evaluatedAt) { this.evaluatedAt = evaluatedAt; }
+}
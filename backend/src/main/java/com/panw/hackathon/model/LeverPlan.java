@@ -0,0 +1,38 @@
+package com.panw.hackathon.model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * One combination of levers (deadline extension, category cuts, income boost)
+ * that brings a goal on track.
+ */
+public class LeverPlan {
+    private int extensionMonths;
+    private Integer newMonthsToDeadline;
+    private BigDecimal newRequiredMonthly;
+
+    private BigDecimal incomeBoost = BigDecimal.ZERO;
+    private BigDecimal totalCutPerMonth = BigDecimal.ZERO;
+    private Map<String, Integer> cutPercentByCategory; // e.g. Dining -> 20
+    private Map<String, BigDecimal> cutAmountByCategory;
+
+    private BigDecimal projectedMonthlyToGoal;
+
+    public int getExtensionMonths() { return extensionMonths; }
+    public void setExtensionMonths(int extensionMonths) { this.extensionMonths = extensionMonths; }
+    public Integer getNewMonthsToDeadline() { return newMonthsToDeadline; }
+    public void setNewMonthsToDeadline(Integer newMonthsToDeadline) { this.newMonthsToDeadline = newMonthsToDeadline; }
+    public BigDecimal getNewRequiredMonthly() { return newRequiredMonthly; }
+    public void setNewRequiredMonthly(BigDecimal newRequiredMonthly) { this.newRequiredMonthly = newRequiredMonthly; }
+    public BigDecimal getIncomeBoost() { return incomeBoost; }
+    public void setIncomeBoost(BigDecimal incomeBoost) { this.incomeBoost = incomeBoost; }
+    public BigDecimal getTotalCutPerMonth() { return totalCutPerMonth; }
+    public void setTotalCutPerMonth(BigDecimal totalCutPerMonth) { this.totalCutPerMonth = totalCutPerMonth; }
+    public Map<String, Integer> getCutPercentByCategory() { return cutPercentByCategory; }
+    public void setCutPercentByCategory(Map<String, Integer> cutPercentByCategory) { this.cutPercentByCategory = cutPercentByCategory; }
+    public Map<String, BigDecimal> getCutAmountByCategory() { return cutAmountByCategory; }
+    public void setCutAmountByCategory(Map<String, BigDecimal> cutAmountByCategory) { this.cutAmountByCategory = cutAmountByCategory; }
+    public BigDecimal getProjectedMonthlyToGoal() { return projectedMonthlyToGoal; }
+    public void setProjectedMonthlyToGoal(BigDecimal projectedMonthlyToGoal) { this.projectedMonthlyToGoal = projectedMonthlyToGoal; }
+}
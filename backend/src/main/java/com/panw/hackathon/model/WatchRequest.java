@@ -0,0 +1,11 @@
+package com.panw.hackathon.model;
+
+/**
+ * A goal to keep re-evaluating in the background, with an optional webhook for status changes.
+ */
+public class WatchRequest extends GoalRequest {
+    private String webhookUrl;
+
+    public String getWebhookUrl() { return webhookUrl; }
+    public void setWebhookUrl(String webhookUrl) { this.webhookUrl = webhookUrl; }
+}
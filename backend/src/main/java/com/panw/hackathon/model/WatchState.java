@@ -0,0 +1,29 @@
+package com.panw.hackathon.model;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * A registered watch as handed from one instance to another when its dataset changes owner.
+ */
+public class WatchState {
+    private String watchId;
+    private String datasetId;
+    private BigDecimal targetAmount;
+    private YearMonth deadline;
+    private String webhookUrl;
+    private String lastStatus;
+
+    public String getWatchId() { return watchId; }
+    public void setWatchId(String watchId) { this.watchId = watchId; }
+    public String getDatasetId() { return datasetId; }
+    public void setDatasetId(String datasetId) { this.datasetId = datasetId; }
+    public BigDecimal getTargetAmount() { return targetAmount; }
+    public void setTargetAmount(BigDecimal targetAmount) { this.targetAmount = targetAmount; }
+    public YearMonth getDeadline() { return deadline; }
+    public void setDeadline(YearMonth deadline) { this.deadline = deadline; }
+    public String getWebhookUrl() { return webhookUrl; }
+    public void setWebhookUrl(String webhookUrl) { this.webhookUrl = webhookUrl; }
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+}
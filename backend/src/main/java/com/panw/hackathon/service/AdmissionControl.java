@@ -0,0 +1,168 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-client token-bucket rate limiting plus a global concurrency limit with a bounded
+ * wait queue for the parse/analyze stage. Rejections surface as AdmissionRejectedException
+ * (429 for rate limits, 503 when saturated) carrying a Retry-After hint.
+ *
+ * Clients are identified by API key only when the key is one of forecast.admission.api-keys,
+ * otherwise by remote address; at most maxTrackedClients buckets are kept, evicting the least
+ * recently used.
+ *
+ * Metrics: forecast.admission.inflight, forecast.admission.queued and
+ * forecast.admission.rejected{reason=rate_limited|queue_full|queue_timeout}.
+ */
+@Service
+public class AdmissionControl {
+
+    private final AdmissionProperties props;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<String> apiKeys;
+    private final Map<String, TokenBucket> buckets;
+
+    private final Counter rateLimited;
+    private final Counter queueFull;
+    private final Counter queueTimeout;
+
+    public AdmissionControl(AdmissionProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.slots = new Semaphore(Math.max(1, props.getMaxConcurrent()), true);
+        this.apiKeys = new HashSet<>(props.getApiKeys());
+        int maxClients = Math.max(1, props.getMaxTrackedClients());
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxClients;
+            }
+        };
+        Gauge.builder("forecast.admission.inflight", slots, s -> Math.max(1, props.getMaxConcurrent()) - s.availablePermits())
+                .register(registry);
+        Gauge.builder("forecast.admission.queued", queued, AtomicInteger::get).register(registry);
+        this.rateLimited = registry.counter("forecast.admission.rejected", "reason", "rate_limited");
+        this.queueFull = registry.counter("forecast.admission.rejected", "reason", "queue_full");
+        this.queueTimeout = registry.counter("forecast.admission.rejected", "reason", "queue_timeout");
+    }
+
+    public String getApiKeyHeader() {
+        return props.getApiKeyHeader();
+    }
+
+    public int getMaxRows() {
+        return props.getMaxRows();
+    }
+
+    /**
+     * Rate-limit key for a request: the API key when it is a configured one, otherwise the
+     * remote address, so rotating made-up keys does not buy a fresh bucket.
+     */
+    public String clientKey(String apiKey, String remoteAddr) {
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + remoteAddr;
+    }
+
+    /** Takes one token from the client's bucket or rejects with 429. */
+    public void checkRate(String clientKey) {
+        if (props.getRatePerMinute() <= 0) return;
+        TokenBucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(clientKey,
+                    k -> new TokenBucket(props.getBurst(), props.getRatePerMinute() / 60_000_000_000.0));
+        }
+        long waitNanos = bucket.tryTake();
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    seconds(waitNanos), "Rate limit exceeded for this client.");
+        }
+    }
+
+    /**
+     * Waits up to the queue timeout for an analysis slot. Fails immediately with 503
+     * when the wait queue is already full.
+     */
+    public Permit acquire() {
+        if (slots.tryAcquire()) return new Permit();
+        if (queued.incrementAndGet() > props.getMaxQueued()) {
+            queued.decrementAndGet();
+            queueFull.increment();
+            throw saturated();
+        }
+        try {
+            if (slots.tryAcquire(props.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return new Permit();
+            }
+            queueTimeout.increment();
+            throw saturated();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw saturated();
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private AdmissionRejectedException saturated() {
+        return new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                seconds(props.getQueueTimeout().toNanos()), "Server is busy, please retry shortly.");
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+
+    public class Permit implements AutoCloseable {
+        private boolean released;
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                slots.release();
+            }
+        }
+    }
+
+    private static class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int capacity, double refillPerNano) {
+            this.capacity = Math.max(1, capacity);
+            this.refillPerNano = refillPerNano;
+            this.tokens = this.capacity;
+        }
+
+        /** Returns 0 when a token was taken, otherwise nanos until one is available. */
+        synchronized long tryTake() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
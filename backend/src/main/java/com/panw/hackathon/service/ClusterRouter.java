@@ -0,0 +1,172 @@
+package com.panw.hackathon.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.panw.hackathon.config.ClusterProperties;
+import com.panw.hackathon.model.BaselineAggregates;
+import com.panw.hackathon.model.WatchState;
+import com.panw.hackathon.util.ConsistentHashRing;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Decides which instance owns a dataset (consistent hashing on the dataset ID) and talks to
+ * peers over plain HTTP: forwarding requests to the owner and handing off cached aggregates,
+ * together with their watches, when membership changes. In single-node mode everything is local.
+ *
+ * Every peer call carries the shared cluster secret; isTrustedPeer is the only way a request
+ * is recognized as coming from another instance.
+ */
+@Service
+public class ClusterRouter {
+    public static final String FORWARDED_HEADER = "X-Forecast-Forwarded";
+    public static final String SECRET_HEADER = "X-Forecast-Cluster-Secret";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRouter.class);
+
+    private final ClusterProperties props;
+    private final DatasetCache cache;
+    private final ReforecastScheduler reforecastScheduler;
+    private final ObjectMapper mapper;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private volatile ConsistentHashRing ring;
+
+    public ClusterRouter(ClusterProperties props, DatasetCache cache, ReforecastScheduler reforecastScheduler,
+                         ObjectMapper mapper) {
+        this.props = props;
+        this.cache = cache;
+        this.reforecastScheduler = reforecastScheduler;
+        this.mapper = mapper;
+        if (props.isEnabled() && (props.getSharedSecret() == null || props.getSharedSecret().isBlank())) {
+            throw new IllegalStateException("forecast.cluster.shared-secret must be set when cluster mode is enabled");
+        }
+        Set<String> nodes = new LinkedHashSet<>(props.getNodes());
+        nodes.add(props.getSelfUrl());
+        this.ring = new ConsistentHashRing(nodes, props.getVirtualNodes());
+    }
+
+    public boolean isEnabled() {
+        return props.isEnabled();
+    }
+
+    public String getSelfUrl() {
+        return props.getSelfUrl();
+    }
+
+    public List<String> getMembers() {
+        return ring.getNodes();
+    }
+
+    public String ownerOf(String datasetId) {
+        return props.isEnabled() ? ring.ownerOf(datasetId) : props.getSelfUrl();
+    }
+
+    public boolean isLocal(String datasetId) {
+        return props.getSelfUrl().equals(ownerOf(datasetId));
+    }
+
+    /** True only in cluster mode and when the presented secret matches ours. */
+    public boolean isTrustedPeer(String secret) {
+        if (!props.isEnabled() || secret == null) return false;
+        return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                props.getSharedSecret().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Stores aggregates on the owning instance, locally or via a peer's internal endpoint. */
+    public void store(String datasetId, BaselineAggregates aggregates) throws IOException {
+        String owner = ownerOf(datasetId);
+        if (props.getSelfUrl().equals(owner)) {
+            cache.put(datasetId, aggregates);
+            return;
+        }
+        HttpResponse<String> resp = send(owner, "PUT", "/internal/cluster/datasets/" + datasetId,
+                mapper.writeValueAsString(aggregates), null);
+        if (resp.statusCode() / 100 != 2) {
+            throw new IOException("Owner " + owner + " rejected dataset " + datasetId + ": HTTP " + resp.statusCode());
+        }
+    }
+
+    /** Relays a JSON request to the owning instance and returns its raw response. */
+    public HttpResponse<String> forward(String owner, String method, String path, String jsonBody,
+                                        String apiKeyHeader, String apiKey) throws IOException {
+        Map<String, String> headers = apiKey == null ? null : Map.of(apiKeyHeader, apiKey);
+        return send(owner, method, path, jsonBody, headers);
+    }
+
+    /**
+     * Replaces the membership view. Only datasets whose owner changed (about 1/N of the
+     * local cache) are pushed to their new owner and dropped here.
+     */
+    public synchronized void updateMembers(Collection<String> nodes) {
+        this.ring = new ConsistentHashRing(nodes, props.getVirtualNodes());
+        if (!props.isEnabled()) return;
+        for (String id : cache.ids()) {
+            if (!isLocal(id)) {
+                handOff(id);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void leave() {
+        if (!props.isEnabled()) return;
+        List<String> remaining = new ArrayList<>(ring.getNodes());
+        remaining.remove(props.getSelfUrl());
+        if (remaining.isEmpty()) return;
+        this.ring = new ConsistentHashRing(remaining, props.getVirtualNodes());
+        for (String id : cache.ids()) {
+            handOff(id);
+        }
+    }
+
+    private void handOff(String datasetId) {
+        BaselineAggregates aggregates = cache.get(datasetId);
+        if (aggregates == null) return;
+        try {
+            store(datasetId, aggregates);
+            List<WatchState> watches = reforecastScheduler.exportWatches(datasetId);
+            if (!watches.isEmpty()) {
+                String owner = ownerOf(datasetId);
+                HttpResponse<String> resp = send(owner, "PUT", "/internal/cluster/datasets/" + datasetId + "/watches",
+                        mapper.writeValueAsString(watches), null);
+                if (resp.statusCode() / 100 != 2) {
+                    throw new IOException("Owner " + owner + " rejected watches: HTTP " + resp.statusCode());
+                }
+            }
+            reforecastScheduler.removeWatches(datasetId);
+            cache.remove(datasetId);
+        } catch (IOException | RuntimeException e) {
+            // keep the local copy and its watches; the next membership change retries
+            log.warn("Hand-off of dataset {} to {} failed: {}", datasetId, ownerOf(datasetId), e.getMessage());
+        }
+    }
+
+    private HttpResponse<String> send(String node, String method, String path, String jsonBody, Map<String, String> headers) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(node + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header(FORWARDED_HEADER, props.getSelfUrl())
+                .header(SECRET_HEADER, props.getSharedSecret())
+                .method(method, HttpRequest.BodyPublishers.ofString(jsonBody));
+        if (headers != null) {
+            headers.forEach(builder::header);
+        }
+        try {
+            return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + node, e);
+        }
+    }
+}
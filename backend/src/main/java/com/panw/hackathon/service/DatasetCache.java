@@ -0,0 +1,103 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.config.ClusterProperties;
+import com.panw.hackathon.model.BaselineAggregates;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * LRU cache of parsed dataset aggregates owned by this instance, keyed by a content hash
+ * of the uploaded CSV so re-uploading the same file maps to the same dataset ID.
+ *
+ * Datasets with active watches are pinned: they move out of the LRU into a separate map, so
+ * eviction never silently stops a watched goal, and back once the last watch is gone.
+ */
+@Service
+public class DatasetCache {
+
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{32}");
+
+    private final Map<String, BaselineAggregates> entries;
+    private final Map<String, BaselineAggregates> pinned = new HashMap<>();
+
+    public DatasetCache(ClusterProperties props) {
+        int capacity = Math.max(1, props.getCacheSize());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BaselineAggregates> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static String idFor(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                md.update(buf, 0, n);
+            }
+            return HexFormat.of().formatHex(md.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static boolean isValidId(String datasetId) {
+        return datasetId != null && ID.matcher(datasetId).matches();
+    }
+
+    public synchronized BaselineAggregates get(String datasetId) {
+        BaselineAggregates p = pinned.get(datasetId);
+        return p != null ? p : entries.get(datasetId);
+    }
+
+    public synchronized void put(String datasetId, BaselineAggregates aggregates) {
+        if (pinned.containsKey(datasetId)) {
+            pinned.put(datasetId, aggregates);
+        } else {
+            entries.put(datasetId, aggregates);
+        }
+    }
+
+    /** Keeps the dataset out of LRU eviction; returns false if it is not cached here. */
+    public synchronized boolean pin(String datasetId) {
+        if (pinned.containsKey(datasetId)) return true;
+        BaselineAggregates aggregates = entries.remove(datasetId);
+        if (aggregates == null) return false;
+        pinned.put(datasetId, aggregates);
+        return true;
+    }
+
+    public synchronized void unpin(String datasetId) {
+        BaselineAggregates aggregates = pinned.remove(datasetId);
+        if (aggregates != null) {
+            entries.put(datasetId, aggregates);
+        }
+    }
+
+    public synchronized BaselineAggregates remove(String datasetId) {
+        BaselineAggregates p = pinned.remove(datasetId);
+        BaselineAggregates e = entries.remove(datasetId);
+        return p != null ? p : e;
+    }
+
+    public synchronized List<String> ids() {
+        List<String> ids = new ArrayList<>(pinned.keySet());
+        ids.addAll(entries.keySet());
+        return ids;
+    }
+}
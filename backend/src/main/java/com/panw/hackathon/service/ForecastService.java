@@ -1,14 +1,17 @@
 package com.panw.hackathon.service;
 
+import com.panw.hackathon.model.BaselineAggregates;
 import com.panw.hackathon.model.ForecastResult;
 import com.panw.hackathon.model.GoalRequest;
 import com.panw.hackathon.model.Suggestion;
 import com.panw.hackathon.model.Transaction;
 import com.panw.hackathon.util.GoalTextParser;
+import com.panw.hackathon.util.InvalidRequestException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -16,13 +19,30 @@ public class ForecastService {
         private static final Set<String> FIXED_CATEGORIES = new HashSet<>(Arrays.asList(
             "Rent", "Mortgage", "Loan", "Utilities", "Internet", "Phone", "Insurance", "Tuition", "Subscriptions"
         ));
-    private static final Set<String> DISCRETIONARY_CATEGORIES = new HashSet<>(Arrays.asList(
+    static final Set<String> DISCRETIONARY_CATEGORIES = new HashSet<>(Arrays.asList(
             "Dining", "Restaurants", "Shopping", "Rideshare", "Entertainment", "Travel", "Hobbies"
     ));
+    private static final int MAX_HISTORY_MONTHS = 120;
+
+    private final SeasonalForecaster seasonalForecaster = new SeasonalForecaster();
+    private final TransferMatcher transferMatcher = new TransferMatcher();
 
     public ForecastResult analyze(List<Transaction> txns, GoalRequest goal) {
+        return analyze(computeBaseline(txns), goal);
+    }
+
+    public BaselineAggregates computeBaseline(List<Transaction> txns) {
         int baselineMonths = 3; // v1 assumption
-        Map<YearMonth, List<Transaction>> byMonth = groupByMonth(txns);
+        List<Transaction> kept = transferMatcher.excludeTransfers(txns);
+
+        // Aggregate each account independently, then merge the per-month partials
+        Map<YearMonth, MonthTotals> byMonth = kept.stream()
+                .collect(Collectors.groupingBy(t -> normalize(t.getAccount())))
+                .values().parallelStream()
+                .map(this::aggregateAccount)
+                .reduce(ForecastService::mergeTotals)
+                .orElseGet(HashMap::new);
+
         List<YearMonth> months = byMonth.keySet().stream()
                 .sorted(Comparator.reverseOrder())
                 .limit(baselineMonths)
@@ -36,24 +56,11 @@ public class ForecastService {
         Map<String, List<Double>> categorySpendPerMonth = new HashMap<>();
 
         for (YearMonth ym : months) {
-            List<Transaction> mtx = byMonth.getOrDefault(ym, Collections.emptyList());
-            double income = mtx.stream().filter(t -> t.getAmount() > 0).mapToDouble(Transaction::getAmount).sum();
-            double fixed = mtx.stream().filter(t -> t.getAmount() < 0 && FIXED_CATEGORIES.contains(normalize(t.getCategory())))
-                    .mapToDouble(t -> -t.getAmount()).sum();
-            double variable = mtx.stream().filter(t -> t.getAmount() < 0 && !FIXED_CATEGORIES.contains(normalize(t.getCategory())))
-                    .mapToDouble(t -> -t.getAmount()).sum();
-
-            monthlyIncome.add(income);
-            monthlyFixed.add(fixed);
-            monthlyVariable.add(variable);
-
-            Map<String, Double> varByCat = mtx.stream()
-                    .filter(t -> t.getAmount() < 0)
-                    .collect(Collectors.groupingBy(
-                            t -> normalize(t.getCategory()),
-                            Collectors.summingDouble(t -> -t.getAmount())
-                    ));
-            for (Map.Entry<String, Double> e : varByCat.entrySet()) {
+            MonthTotals m = byMonth.get(ym);
+            monthlyIncome.add(m.income);
+            monthlyFixed.add(m.fixed);
+            monthlyVariable.add(m.variable);
+            for (Map.Entry<String, Double> e : m.spendByCategory.entrySet()) {
                 categorySpendPerMonth.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(e.getValue());
             }
         }
@@ -64,42 +71,132 @@ public class ForecastService {
             capacity.add(cap);
         }
 
-        double p10 = percentile(capacity, 10);
-        double p50 = percentile(capacity, 50);
-        double p90 = percentile(capacity, 90);
+        BaselineAggregates baseline = new BaselineAggregates();
+        baseline.setMonths(months);
+        baseline.setMonthlyIncome(monthlyIncome);
+        baseline.setMonthlyFixed(monthlyFixed);
+        baseline.setMonthlyVariable(monthlyVariable);
+        baseline.setCategorySpendPerMonth(categorySpendPerMonth);
+        fillHistory(baseline, byMonth);
+        baseline.setP10(percentile(capacity, 10));
+        baseline.setP50(percentile(capacity, 50));
+        baseline.setP90(percentile(capacity, 90));
+        baseline.setFingerprint(fingerprint(baseline));
+        return baseline;
+    }
+
+    private Map<YearMonth, MonthTotals> aggregateAccount(List<Transaction> accountTxns) {
+        Map<YearMonth, MonthTotals> byMonth = new HashMap<>();
+        for (Transaction t : accountTxns) {
+            MonthTotals m = byMonth.computeIfAbsent(YearMonth.from(t.getDate()), k -> new MonthTotals());
+            double amount = t.getAmount();
+            if (amount > 0) {
+                m.income += amount;
+            } else if (amount < 0) {
+                String category = normalize(t.getCategory());
+                if (FIXED_CATEGORIES.contains(category)) {
+                    m.fixed -= amount;
+                } else {
+                    m.variable -= amount;
+                }
+                m.spendByCategory.merge(category, -amount, Double::sum);
+            }
+        }
+        return byMonth;
+    }
+
+    private static Map<YearMonth, MonthTotals> mergeTotals(Map<YearMonth, MonthTotals> a, Map<YearMonth, MonthTotals> b) {
+        for (Map.Entry<YearMonth, MonthTotals> e : b.entrySet()) {
+            MonthTotals into = a.computeIfAbsent(e.getKey(), k -> new MonthTotals());
+            MonthTotals from = e.getValue();
+            into.income += from.income;
+            into.fixed += from.fixed;
+            into.variable += from.variable;
+            from.spendByCategory.forEach((k, v) -> into.spendByCategory.merge(k, v, Double::sum));
+        }
+        return a;
+    }
+
+    // Zero-filled monthly series over the whole export (capped to the most recent MAX_HISTORY_MONTHS)
+    private void fillHistory(BaselineAggregates baseline, Map<YearMonth, MonthTotals> byMonth) {
+        if (byMonth.isEmpty()) {
+            baseline.setHistoryIncome(new double[0]);
+            baseline.setHistorySpendByCategory(new HashMap<>());
+            return;
+        }
+        YearMonth last = Collections.max(byMonth.keySet());
+        YearMonth first = Collections.max(List.of(Collections.min(byMonth.keySet()), last.minusMonths(MAX_HISTORY_MONTHS - 1)));
+        int n = (int) first.until(last, ChronoUnit.MONTHS) + 1;
+
+        double[] income = new double[n];
+        Map<String, double[]> spend = new HashMap<>();
+        for (Map.Entry<YearMonth, MonthTotals> e : byMonth.entrySet()) {
+            int i = (int) first.until(e.getKey(), ChronoUnit.MONTHS);
+            if (i < 0) continue;
+            income[i] = e.getValue().income;
+            for (Map.Entry<String, Double> c : e.getValue().spendByCategory.entrySet()) {
+                spend.computeIfAbsent(c.getKey(), k -> new double[n])[i] = c.getValue();
+            }
+        }
+        baseline.setHistoryStart(first);
+        baseline.setHistoryIncome(income);
+        baseline.setHistorySpendByCategory(spend);
+    }
+
+    private static class MonthTotals {
+        double income;
+        double fixed;
+        double variable;
+        final Map<String, Double> spendByCategory = new HashMap<>();
+    }
 
+    /**
+     * Fills in targetAmount/monthsToDeadline from goalText when they are missing or invalid.
+     */
+    public GoalRequest resolveGoal(GoalRequest goal) {
         BigDecimal targetAmount = goal.getTargetAmount();
         Integer monthsToDeadline = goal.getMonthsToDeadline();
         if ((targetAmount == null || targetAmount.compareTo(BigDecimal.ONE) < 0)
                 || (monthsToDeadline == null || monthsToDeadline < 1)) {
             GoalTextParser.ParsedGoal parsed = GoalTextParser.parse(goal.getGoalText());
             if (parsed == null) {
-                throw new IllegalArgumentException("Unable to parse goal text. Please include an amount (e.g., $5000) and a timeframe (e.g., in 6 months or by 2026-06-15).");
+                throw new InvalidRequestException("Unable to parse goal text. Please include an amount (e.g., $5000) and a timeframe (e.g., in 6 months or by 2026-06-15).");
             }
             targetAmount = parsed.targetAmount;
             monthsToDeadline = parsed.monthsToDeadline;
         }
+        GoalRequest resolved = new GoalRequest();
+        resolved.setTargetAmount(targetAmount);
+        resolved.setMonthsToDeadline(monthsToDeadline);
+        resolved.setGoalText(goal.getGoalText());
+        return resolved;
+    }
+
+    public ForecastResult analyze(BaselineAggregates baseline, GoalRequest goal) {
+        List<YearMonth> months = baseline.getMonths();
+        Map<String, List<Double>> categorySpendPerMonth = baseline.getCategorySpendPerMonth();
+        double p10 = baseline.getP10();
+        double p50 = baseline.getP50();
+        double p90 = baseline.getP90();
+
+        GoalRequest resolved = resolveGoal(goal);
+        BigDecimal targetAmount = resolved.getTargetAmount();
+        Integer monthsToDeadline = resolved.getMonthsToDeadline();
 
-        BigDecimal requiredMonthly = targetAmount
-            .divide(BigDecimal.valueOf(monthsToDeadline), 2, RoundingMode.HALF_UP);
+        BigDecimal requiredMonthly = requiredMonthly(targetAmount, monthsToDeadline);
 
         BigDecimal projectedMonthlyToGoal = BigDecimal.valueOf(Math.max(0, p50)).setScale(2, RoundingMode.HALF_UP);
 
-        String status;
-        boolean onTrack;
-        if (BigDecimal.valueOf(p50).compareTo(requiredMonthly) >= 0) {
-            status = "on_track";
-            onTrack = true;
-        } else if (BigDecimal.valueOf(p90).compareTo(requiredMonthly) >= 0) {
-            status = "borderline";
-            onTrack = false;
-        } else {
-            status = "off_track";
-            onTrack = false;
-        }
+        String status = status(baseline, requiredMonthly);
+        boolean onTrack = "on_track".equals(status);
 
-        BigDecimal forecastedBalanceAtDeadlineP50 = BigDecimal.valueOf(Math.max(0, p50))
-            .multiply(BigDecimal.valueOf(monthsToDeadline))
+        double[] capacityPath = seasonalForecaster.projectCapacity(baseline, monthsToDeadline);
+        List<BigDecimal> projectedCapacityPath = new ArrayList<>(capacityPath.length);
+        for (double c : capacityPath) {
+            projectedCapacityPath.add(BigDecimal.valueOf(c).setScale(2, RoundingMode.HALF_UP));
+        }
+        double cumulative = SeasonalForecaster.cumulative(capacityPath, monthsToDeadline);
+        BigDecimal forecastedBalanceAtDeadlineP50 = BigDecimal.valueOf(Math.max(0, cumulative))
             .setScale(2, RoundingMode.HALF_UP);
 
         List<Suggestion> suggestions = new ArrayList<>();
@@ -133,13 +230,39 @@ public class ForecastService {
         result.setP90(BigDecimal.valueOf(p90).setScale(2, RoundingMode.HALF_UP));
         result.setProjectedMonthlyToGoal(projectedMonthlyToGoal);
         result.setForecastedBalanceAtDeadlineP50(forecastedBalanceAtDeadlineP50);
+        result.setProjectedCapacityPath(projectedCapacityPath);
         result.setSuggestions(suggestions);
         result.setMonthlyGap(gap.max(BigDecimal.ZERO));
         return result;
     }
 
-    private Map<YearMonth, List<Transaction>> groupByMonth(List<Transaction> txns) {
-        return txns.stream().collect(Collectors.groupingBy(t -> YearMonth.from(t.getDate())));
+    public BigDecimal requiredMonthly(BigDecimal targetAmount, int monthsToDeadline) {
+        return targetAmount.divide(BigDecimal.valueOf(monthsToDeadline), 2, RoundingMode.HALF_UP);
+    }
+
+    /** on_track when typical (p50) capacity covers the requirement, borderline when a good month (p90) does. */
+    public String status(BaselineAggregates baseline, BigDecimal requiredMonthly) {
+        if (BigDecimal.valueOf(baseline.getP50()).compareTo(requiredMonthly) >= 0) {
+            return "on_track";
+        } else if (BigDecimal.valueOf(baseline.getP90()).compareTo(requiredMonthly) >= 0) {
+            return "borderline";
+        }
+        return "off_track";
+    }
+
+    // Content hash of the aggregates, used to skip re-evaluation when nothing changed
+    private long fingerprint(BaselineAggregates b) {
+        long h = Objects.hashCode(b.getMonths());
+        h = 31 * h + Double.hashCode(b.getP10());
+        h = 31 * h + Double.hashCode(b.getP50());
+        h = 31 * h + Double.hashCode(b.getP90());
+        h = 31 * h + Objects.hashCode(b.getHistoryStart());
+        h = 31 * h + Arrays.hashCode(b.getHistoryIncome());
+        long categories = 0;
+        for (Map.Entry<String, double[]> e : b.getHistorySpendByCategory().entrySet()) {
+            categories += e.getKey().hashCode() * 31L + Arrays.hashCode(e.getValue());
+        }
+        return 31 * h + categories;
     }
 
     private double percentile(List<Double> values, int pct) {
@@ -271,7 +394,7 @@ public class ForecastService {
         );
     }
 
-    private double median(List<Double> values) {
+    static double median(List<Double> values) {
         if (values == null || values.isEmpty()) return 0.0;
         List<Double> copy = new ArrayList<>(values);
         copy.sort(Double::compareTo);
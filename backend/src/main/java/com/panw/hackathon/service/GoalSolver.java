@@ -0,0 +1,177 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.model.BaselineAggregates;
+import com.panw.hackathon.model.LeverPlan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Searches deadline extensions, discretionary category cuts and income boosts for the
+ * least disruptive combinations that bring a goal on track (p50 capacity >= required monthly).
+ *
+ * Cuts are a bounded knapsack over categories (each category picks one cut level, cost is
+ * percentage points cut); for each (cut budget, income boost) pair the smallest extension is
+ * found by binary search, and only Pareto-optimal (extension, cut, income) triples are returned.
+ */
+public class GoalSolver {
+    private static final int[] CUT_LEVELS = {0, 10, 20, 30, 50}; // percent of the category median
+    private static final int CUT_UNIT = 10; // knapsack cost unit, in percentage points
+    private static final int INCOME_STEP = 50;
+    private static final int MAX_INCOME_BOOST = 500;
+    private static final int MAX_EXTENSION_MONTHS = 36;
+    private static final int MAX_PLANS = 20;
+
+    public List<LeverPlan> solve(BaselineAggregates baseline, BigDecimal targetAmount, int monthsToDeadline) {
+        double p50 = baseline.getP50();
+
+        List<String> cats = new ArrayList<>();
+        List<Double> medianList = new ArrayList<>();
+        for (Map.Entry<String, List<Double>> e : new TreeMap<>(baseline.getCategorySpendPerMonth()).entrySet()) {
+            double m = ForecastService.median(e.getValue());
+            if (ForecastService.DISCRETIONARY_CATEGORIES.contains(e.getKey()) && m > 0) {
+                cats.add(e.getKey());
+                medianList.add(m);
+            }
+        }
+        int n = cats.size();
+        int maxLevelCost = CUT_LEVELS[CUT_LEVELS.length - 1] / CUT_UNIT;
+        int maxCost = n * maxLevelCost;
+
+        // dp[k][c]: best monthly savings from the first k categories at exactly cost c
+        double[][] dp = new double[n + 1][maxCost + 1];
+        int[][] choice = new int[n + 1][maxCost + 1];
+        for (double[] row : dp) Arrays.fill(row, Double.NEGATIVE_INFINITY);
+        dp[0][0] = 0;
+        for (int k = 1; k <= n; k++) {
+            double median = medianList.get(k - 1);
+            for (int c = 0; c <= k * maxLevelCost; c++) {
+                for (int li = 0; li < CUT_LEVELS.length; li++) {
+                    int w = CUT_LEVELS[li] / CUT_UNIT;
+                    if (w > c || dp[k - 1][c - w] == Double.NEGATIVE_INFINITY) continue;
+                    double v = dp[k - 1][c - w] + median * CUT_LEVELS[li] / 100.0;
+                    if (v > dp[k][c]) {
+                        dp[k][c] = v;
+                        choice[k][c] = li;
+                    }
+                }
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        double bestSavings = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c <= maxCost; c++) {
+            // a higher cut budget is only worth trying if it actually saves more
+            if (dp[n][c] <= bestSavings) continue;
+            bestSavings = dp[n][c];
+            for (int income = 0; income <= MAX_INCOME_BOOST; income += INCOME_STEP) {
+                double monthly = p50 + income + dp[n][c];
+                int ext = minExtension(targetAmount, monthsToDeadline, monthly);
+                if (ext >= 0) {
+                    candidates.add(new Candidate(ext, c, income, monthly));
+                }
+            }
+        }
+
+        List<Candidate> pareto = new ArrayList<>();
+        for (Candidate a : candidates) {
+            boolean dominated = false;
+            for (Candidate b : candidates) {
+                if (b != a && b.dominates(a)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) pareto.add(a);
+        }
+        pareto.sort(Comparator.comparingInt(Candidate::leversUsed)
+                .thenComparingInt(x -> x.extension)
+                .thenComparingInt(x -> x.cost)
+                .thenComparingInt(x -> x.income));
+
+        List<LeverPlan> plans = new ArrayList<>();
+        for (Candidate cand : pareto.subList(0, Math.min(MAX_PLANS, pareto.size()))) {
+            plans.add(toPlan(cand, cats, medianList, choice, targetAmount, monthsToDeadline));
+        }
+        return plans;
+    }
+
+    /** Smallest extension that makes monthly >= required, or -1 if none within the cap. */
+    private int minExtension(BigDecimal targetAmount, int monthsToDeadline, double monthly) {
+        if (monthly <= 0) return -1;
+        if (!reaches(targetAmount, (long) monthsToDeadline + MAX_EXTENSION_MONTHS, monthly)) return -1;
+        int lo = 0;
+        int hi = MAX_EXTENSION_MONTHS;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (reaches(targetAmount, (long) monthsToDeadline + mid, monthly)) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    // months is a long so that client deadlines near Integer.MAX_VALUE plus an extension cannot overflow
+    private boolean reaches(BigDecimal targetAmount, long months, double monthly) {
+        return BigDecimal.valueOf(monthly).compareTo(requiredMonthly(targetAmount, months)) >= 0;
+    }
+
+    private BigDecimal requiredMonthly(BigDecimal targetAmount, long months) {
+        return targetAmount.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+    }
+
+    private LeverPlan toPlan(Candidate cand, List<String> cats, List<Double> medians, int[][] choice,
+                             BigDecimal targetAmount, int monthsToDeadline) {
+        Map<String, Integer> cutPercent = new LinkedHashMap<>();
+        Map<String, BigDecimal> cutAmount = new LinkedHashMap<>();
+        BigDecimal totalCut = BigDecimal.ZERO;
+        int c = cand.cost;
+        for (int k = cats.size(); k >= 1; k--) {
+            int pct = CUT_LEVELS[choice[k][c]];
+            c -= pct / CUT_UNIT;
+            if (pct == 0) continue;
+            BigDecimal amount = BigDecimal.valueOf(medians.get(k - 1) * pct / 100.0).setScale(2, RoundingMode.HALF_UP);
+            cutPercent.put(cats.get(k - 1), pct);
+            cutAmount.put(cats.get(k - 1), amount);
+            totalCut = totalCut.add(amount);
+        }
+
+        int newMonths = (int) Math.min(Integer.MAX_VALUE, (long) monthsToDeadline + cand.extension);
+        LeverPlan plan = new LeverPlan();
+        plan.setExtensionMonths(cand.extension);
+        plan.setNewMonthsToDeadline(newMonths);
+        plan.setNewRequiredMonthly(requiredMonthly(targetAmount, newMonths));
+        plan.setIncomeBoost(BigDecimal.valueOf(cand.income).setScale(2, RoundingMode.HALF_UP));
+        plan.setTotalCutPerMonth(totalCut);
+        plan.setCutPercentByCategory(cutPercent);
+        plan.setCutAmountByCategory(cutAmount);
+        plan.setProjectedMonthlyToGoal(BigDecimal.valueOf(cand.monthly).setScale(2, RoundingMode.HALF_UP));
+        return plan;
+    }
+
+    private static class Candidate {
+        final int extension;
+        final int cost;
+        final int income;
+        final double monthly;
+
+        Candidate(int extension, int cost, int income, double monthly) {
+            this.extension = extension;
+            this.cost = cost;
+            this.income = income;
+            this.monthly = monthly;
+        }
+
+        boolean dominates(Candidate o) {
+            return extension <= o.extension && cost <= o.cost && income <= o.income
+                    && (extension < o.extension || cost < o.cost || income < o.income);
+        }
+
+        int leversUsed() {
+            return (extension > 0 ? 1 : 0) + (cost > 0 ? 1 : 0) + (income > 0 ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.panw.hackathon.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.panw.hackathon.config.ReforecastProperties;
+import com.panw.hackathon.model.BaselineAggregates;
+import com.panw.hackathon.model.GoalRequest;
+import com.panw.hackathon.model.GoalStatusChangedEvent;
+import com.panw.hackathon.model.WatchState;
+import com.panw.hackathon.util.InvalidRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically re-evaluates registered (dataset, goal) watches against the locally cached
+ * aggregates. Watches are spread over interval/tick slots and one slot is processed per tick,
+ * so load stays flat. A watch is skipped unless its dataset fingerprint or the reference month
+ * changed, and a GoalStatusChangedEvent is published (and posted to the webhook, if any)
+ * when its status flips.
+ *
+ * At most maxWatches are kept and webhooks must point at an allow-listed host. A watched dataset
+ * is pinned in DatasetCache so eviction cannot stop its watches, and when the dataset changes
+ * owner ClusterRouter moves its watches along with it (exportWatches/importWatches).
+ */
+@Service
+public class ReforecastScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReforecastScheduler.class);
+
+    private final ReforecastProperties props;
+    private final DatasetCache datasetCache;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper mapper;
+    private final ForecastService forecastService = new ForecastService();
+    private final HttpClient client = HttpClient.newHttpClient(); // never follows redirects
+    private final Set<String> allowedHosts = new HashSet<>();
+
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private final Map<String, Set<Watch>> byDataset = new ConcurrentHashMap<>();
+    private final List<Set<Watch>> slots;
+    private long tickCount;
+
+    public ReforecastScheduler(ReforecastProperties props, DatasetCache datasetCache,
+                               ApplicationEventPublisher events, ObjectMapper mapper) {
+        this.props = props;
+        this.datasetCache = datasetCache;
+        this.events = events;
+        this.mapper = mapper;
+        for (String host : props.getWebhookAllowedHosts()) {
+            allowedHosts.add(host.trim().toLowerCase(Locale.ROOT));
+        }
+        int slotCount = (int) Math.max(1, props.getInterval().toMillis() / Math.max(1, props.getTick().toMillis()));
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /** Registers a resolved goal and returns its id and current status. */
+    public Map<String, String> register(String datasetId, GoalRequest goal, String webhookUrl) {
+        URI webhook = parseWebhook(webhookUrl);
+        YearMonth now = YearMonth.now();
+        Watch w = new Watch(UUID.randomUUID().toString(), datasetId, goal.getTargetAmount(),
+                now.plusMonths(goal.getMonthsToDeadline()), webhook);
+        evaluate(w, now);
+        add(w);
+        return Map.of("watchId", w.id, "status", w.lastStatus == null ? "unknown" : w.lastStatus);
+    }
+
+    /** Removes a watch, but only through the dataset it was registered on. */
+    public boolean unregister(String datasetId, String watchId) {
+        synchronized (watches) {
+            Watch w = watches.get(watchId);
+            if (w == null || !w.datasetId.equals(datasetId)) return false;
+            remove(w);
+            return true;
+        }
+    }
+
+    /** Snapshot of the watches on a dataset, for handing them to its new owner. */
+    public List<WatchState> exportWatches(String datasetId) {
+        List<WatchState> out = new ArrayList<>();
+        for (Watch w : byDataset.getOrDefault(datasetId, Set.of())) {
+            WatchState state = new WatchState();
+            state.setWatchId(w.id);
+            state.setDatasetId(w.datasetId);
+            state.setTargetAmount(w.targetAmount);
+            state.setDeadline(w.deadline);
+            state.setWebhookUrl(w.webhook == null ? null : w.webhook.toString());
+            synchronized (w) {
+                state.setLastStatus(w.lastStatus);
+            }
+            out.add(state);
+        }
+        return out;
+    }
+
+    /** Adopts watches handed over by the previous owner of a dataset; already known ids are skipped. */
+    public void importWatches(String datasetId, List<WatchState> states) {
+        for (WatchState state : states) {
+            if (!datasetId.equals(state.getDatasetId()) || state.getWatchId() == null
+                    || state.getTargetAmount() == null || state.getDeadline() == null) {
+                throw new InvalidRequestException("Invalid watch hand-off for dataset " + datasetId + ".");
+            }
+            if (watches.containsKey(state.getWatchId())) continue;
+            Watch w = new Watch(state.getWatchId(), datasetId, state.getTargetAmount(), state.getDeadline(),
+                    parseWebhook(state.getWebhookUrl()));
+            w.lastStatus = state.getLastStatus();
+            add(w);
+        }
+    }
+
+    /** Drops every watch on a dataset once they have been handed off. */
+    public void removeWatches(String datasetId) {
+        synchronized (watches) {
+            for (Watch w : new ArrayList<>(byDataset.getOrDefault(datasetId, Set.of()))) {
+                remove(w);
+            }
+        }
+    }
+
+    // The dataset stays pinned in the cache for as long as it has at least one watch
+    private void add(Watch w) {
+        synchronized (watches) {
+            if (watches.size() >= props.getMaxWatches()) {
+                throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                        props.getInterval().toSeconds(), "Too many goals are being watched.");
+            }
+            if (!datasetCache.pin(w.datasetId)) {
+                throw new InvalidRequestException("Unknown dataset; please upload it again.");
+            }
+            watches.put(w.id, w);
+            byDataset.computeIfAbsent(w.datasetId, k -> ConcurrentHashMap.newKeySet()).add(w);
+            slotFor(w).add(w);
+        }
+    }
+
+    private void remove(Watch w) {
+        synchronized (watches) {
+            if (watches.remove(w.id) == null) return;
+            slotFor(w).remove(w);
+            Set<Watch> onDataset = byDataset.get(w.datasetId);
+            if (onDataset != null && onDataset.remove(w) && onDataset.isEmpty()) {
+                byDataset.remove(w.datasetId);
+                datasetCache.unpin(w.datasetId);
+            }
+        }
+    }
+
+    private URI parseWebhook(String webhookUrl) {
+        if (webhookUrl == null || webhookUrl.isBlank()) return null;
+        URI webhook;
+        try {
+            webhook = URI.create(webhookUrl.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("webhookUrl is not a valid URL.");
+        }
+        if (!"http".equalsIgnoreCase(webhook.getScheme()) && !"https".equalsIgnoreCase(webhook.getScheme())) {
+            throw new InvalidRequestException("webhookUrl must be an http(s) URL.");
+        }
+        if (webhook.getHost() == null || !allowedHosts.contains(webhook.getHost().toLowerCase(Locale.ROOT))) {
+            throw new InvalidRequestException("webhookUrl host is not allowed.");
+        }
+        return webhook;
+    }
+
+    @Scheduled(fixedRateString = "${forecast.reforecast.tick:PT1S}")
+    public void tick() {
+        if (!props.isEnabled()) return;
+        Set<Watch> slot = slots.get((int) (tickCount++ % slots.size()));
+        YearMonth now = YearMonth.now();
+        for (Watch w : slot) {
+            evaluate(w, now);
+        }
+    }
+
+    private void evaluate(Watch w, YearMonth referenceMonth) {
+        BaselineAggregates baseline = datasetCache.get(w.datasetId);
+        if (baseline == null) return; // only while a hand-off is moving the dataset and its watches away
+        GoalStatusChangedEvent flip = null;
+        synchronized (w) {
+            if (baseline.getFingerprint() == w.lastFingerprint && referenceMonth.equals(w.lastReferenceMonth)) {
+                return;
+            }
+            int months = (int) Math.max(1, referenceMonth.until(w.deadline, ChronoUnit.MONTHS));
+            BigDecimal required = forecastService.requiredMonthly(w.targetAmount, months);
+            String status = forecastService.status(baseline, required);
+            if (w.lastStatus != null && !w.lastStatus.equals(status)) {
+                flip = new GoalStatusChangedEvent(w.id, w.datasetId, w.lastStatus, status, required, months, Instant.now());
+            }
+            w.lastFingerprint = baseline.getFingerprint();
+            w.lastReferenceMonth = referenceMonth;
+            w.lastStatus = status;
+        }
+        if (flip != null) {
+            events.publishEvent(flip);
+            if (w.webhook != null) {
+                postWebhook(w.webhook, flip);
+            }
+        }
+    }
+
+    private void postWebhook(URI webhook, GoalStatusChangedEvent event) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(webhook)
+                    .timeout(props.getWebhookTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(event)))
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resp, err) -> {
+                        if (err != null || resp.statusCode() / 100 != 2) {
+                            log.warn("Webhook {} for watch {} failed: {}", webhook, event.getWatchId(),
+                                    err != null ? err.getMessage() : "HTTP " + resp.statusCode());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Could not serialize status event for watch {}", event.getWatchId(), e);
+        }
+    }
+
+    private Set<Watch> slotFor(Watch w) {
+        return slots.get(Math.floorMod(w.id.hashCode(), slots.size()));
+    }
+
+    private static class Watch {
+        final String id;
+        final String datasetId;
+        final BigDecimal targetAmount;
+        final YearMonth deadline;
+        final URI webhook;
+
+        long lastFingerprint;
+        YearMonth lastReferenceMonth;
+        String lastStatus;
+
+        Watch(String id, String datasetId, BigDecimal targetAmount, YearMonth deadline, URI webhook) {
+            this.id = id;
+            this.datasetId = datasetId;
+            this.targetAmount = targetAmount;
+            this.deadline = deadline;
+            this.webhook = webhook;
+        }
+    }
+}
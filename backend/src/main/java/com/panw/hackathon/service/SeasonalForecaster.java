@@ -0,0 +1,164 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.model.BaselineAggregates;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-category seasonal forecasts over the full monthly history of a dataset.
+ *
+ * Each series (income and every spending category) gets an additive Holt-Winters model with a
+ * damped trend and a 12-month season once there is at least a year of data, and simple
+ * exponential smoothing before that. Models are fitted in parallel on primitive arrays, once per
+ * aggregates instance, and reused by every later analyze/solve/watch call on that dataset. A new
+ * upload produces new aggregates and is fitted from scratch.
+ *
+ * Paths are capped at MAX_HORIZON months; cumulative() carries the average of the last projected
+ * season over any months beyond that, so long deadlines cost no more than ten years of projection.
+ */
+public class SeasonalForecaster {
+    static final int SEASON = 12;
+    static final int MAX_HORIZON = 120;
+
+    private static final double ALPHA = 0.3;  // level
+    private static final double BETA = 0.05;  // trend
+    private static final double GAMMA = 0.2;  // seasonality
+    private static final double PHI = 0.9;    // trend damping
+
+    // Fitted models per aggregates instance (identity keys); entries go away with the dataset.
+    // Only lookups and inserts hold the lock, fitting happens outside it.
+    private static final Map<BaselineAggregates, ModelSet> FITTED = new WeakHashMap<>();
+
+    /**
+     * Projected monthly savings capacity (income minus all spending) for the next horizon months,
+     * truncated to MAX_HORIZON months.
+     */
+    public double[] projectCapacity(BaselineAggregates baseline, int horizon) {
+        horizon = Math.max(0, Math.min(horizon, MAX_HORIZON));
+        ModelSet models = modelsFor(baseline);
+        double[] path = models.income.forecast(horizon);
+        for (Model m : models.spendByCategory.values()) {
+            double[] spend = m.forecast(horizon);
+            for (int h = 0; h < horizon; h++) {
+                path[h] -= spend[h];
+            }
+        }
+        return path;
+    }
+
+    /** Total capacity over horizon months from a (possibly truncated) projected path. */
+    public static double cumulative(double[] path, long horizon) {
+        double sum = 0;
+        for (double c : path) sum += c;
+        long remaining = horizon - path.length;
+        if (remaining > 0 && path.length > 0) {
+            int from = Math.max(0, path.length - SEASON);
+            double tail = 0;
+            for (int i = from; i < path.length; i++) tail += path[i];
+            sum += remaining * (tail / (path.length - from));
+        }
+        return sum;
+    }
+
+    private static ModelSet modelsFor(BaselineAggregates baseline) {
+        synchronized (FITTED) {
+            ModelSet cached = FITTED.get(baseline);
+            if (cached != null) return cached;
+        }
+        // two first calls on the same dataset may both fit; the first one stored wins
+        ModelSet fitted = fit(baseline);
+        synchronized (FITTED) {
+            ModelSet raced = FITTED.putIfAbsent(baseline, fitted);
+            return raced != null ? raced : fitted;
+        }
+    }
+
+    private static ModelSet fit(BaselineAggregates baseline) {
+        Map<String, Model> spend = new ConcurrentHashMap<>();
+        baseline.getHistorySpendByCategory().entrySet().parallelStream()
+                .forEach(e -> spend.put(e.getKey(), Model.fit(e.getValue())));
+        return new ModelSet(Model.fit(baseline.getHistoryIncome()), spend);
+    }
+
+    static class ModelSet {
+        final Model income;
+        final Map<String, Model> spendByCategory;
+
+        ModelSet(Model income, Map<String, Model> spendByCategory) {
+            this.income = income;
+            this.spendByCategory = spendByCategory;
+        }
+    }
+
+    public static class Model {
+        private double level;
+        private double trend;
+        private final double[] seasonal; // null until a full season has been seen
+        private int observed;
+
+        private Model(double level, double trend, double[] seasonal, int observed) {
+            this.level = level;
+            this.trend = trend;
+            this.seasonal = seasonal;
+            this.observed = observed;
+        }
+
+        public static Model fit(double[] y) {
+            int n = y.length;
+            if (n == 0) return new Model(0, 0, null, 0);
+            if (n < SEASON) {
+                Model m = new Model(y[0], 0, null, 1);
+                for (int t = 1; t < n; t++) m.update(y[t]);
+                return m;
+            }
+            double level = mean(y, 0, SEASON);
+            double trend = n >= 2 * SEASON ? (mean(y, SEASON, 2 * SEASON) - level) / SEASON : 0;
+            double[] seasonal = new double[SEASON];
+            for (int i = 0; i < SEASON; i++) {
+                seasonal[i] = y[i] - level;
+            }
+            Model m = new Model(level, trend, seasonal, SEASON);
+            for (int t = SEASON; t < n; t++) m.update(y[t]);
+            return m;
+        }
+
+        // Folds in the next month's observation in O(1)
+        private void update(double y) {
+            if (seasonal == null) {
+                level = ALPHA * y + (1 - ALPHA) * level;
+            } else {
+                int s = observed % SEASON;
+                double prevLevel = level;
+                level = ALPHA * (y - seasonal[s]) + (1 - ALPHA) * (prevLevel + PHI * trend);
+                trend = BETA * (level - prevLevel) + (1 - BETA) * PHI * trend;
+                seasonal[s] = GAMMA * (y - level) + (1 - GAMMA) * seasonal[s];
+            }
+            observed++;
+        }
+
+        /** Forecasts for the next horizon months, floored at zero (amounts are magnitudes). */
+        public double[] forecast(int horizon) {
+            double[] out = new double[Math.max(0, horizon)];
+            double damped = 0;
+            double phiPow = 1;
+            for (int h = 1; h <= out.length; h++) {
+                phiPow *= PHI;
+                damped += phiPow;
+                double v = level + damped * trend;
+                if (seasonal != null) {
+                    v += seasonal[(observed + h - 1) % SEASON];
+                }
+                out[h - 1] = Math.max(0, v);
+            }
+            return out;
+        }
+
+        private static double mean(double[] y, int from, int to) {
+            double sum = 0;
+            for (int i = from; i < to; i++) sum += y[i];
+            return sum / (to - from);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.model.Transaction;
+
+import java.util.*;
+
+/**
+ * Finds money moving between the user's own accounts (checking -> savings, card payments) so it
+ * is not counted as both income and spending. An outflow and an inflow pair up when they have
+ * the same absolute amount, different accounts, and dates at most MAX_DAYS_APART apart; each
+ * inflow takes the closest-dated unmatched outflow.
+ *
+ * Rows are hash-joined on amount in cents and each amount bucket is matched independently (in
+ * parallel). Inside a bucket the outflows are split per account and sorted by day, so an inflow
+ * only looks at other accounts' outflows, and matched outflows are skipped through next/prev
+ * free pointers with path compression. That keeps dense buckets (one amount on many days and
+ * rows) at O(n log n) rather than scanning the whole date window for every inflow.
+ */
+public class TransferMatcher {
+    static final int MAX_DAYS_APART = 3;
+
+    /** Returns the transactions with matched transfer pairs removed, in their original order. */
+    public List<Transaction> excludeTransfers(List<Transaction> txns) {
+        int n = txns.size();
+        int[] accountIds = new int[n];
+        Map<String, Integer> accounts = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String a = txns.get(i).getAccount();
+            a = a == null ? "" : a.trim();
+            accountIds[i] = a.isEmpty() ? -1 : accounts.computeIfAbsent(a, k -> accounts.size());
+        }
+        if (accounts.size() < 2) return txns;
+
+        Map<Long, Bucket> buckets = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Transaction t = txns.get(i);
+            if (t.getAmount() == 0 || accountIds[i] < 0) continue;
+            long packed = (t.getDate().toEpochDay() << 32) | i;
+            Bucket b = buckets.computeIfAbsent(Math.round(Math.abs(t.getAmount()) * 100), k -> new Bucket());
+            if (t.getAmount() < 0) {
+                b.outs = append(b.outs, b.outCount++, packed);
+            } else {
+                b.ins = append(b.ins, b.inCount++, packed);
+            }
+        }
+
+        // Buckets touch disjoint rows, so they can all write into the same array
+        boolean[] matched = new boolean[n];
+        buckets.values().parallelStream()
+                .filter(b -> b.outCount > 0 && b.inCount > 0)
+                .forEach(b -> matchBucket(b, accountIds, matched));
+
+        List<Transaction> kept = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (!matched[i]) kept.add(txns.get(i));
+        }
+        return kept.size() == n ? txns : kept;
+    }
+
+    private void matchBucket(Bucket b, int[] accountIds, boolean[] matched) {
+        List<Outflows> byAccount = splitByAccount(b, accountIds);
+        long[] ins = Arrays.copyOf(b.ins, b.inCount);
+        Arrays.sort(ins);
+        for (long in : ins) {
+            long day = in >> 32;
+            int inRow = (int) in;
+            Outflows bestSide = null;
+            int best = -1;
+            long bestGap = Long.MAX_VALUE;
+            for (Outflows side : byAccount) {
+                if (side.account == accountIds[inRow]) continue;
+                int at = side.firstOnOrAfter(day);
+                int before = side.prevFree(at - 1);
+                if (before >= 0 && day - side.day(before) <= MAX_DAYS_APART && day - side.day(before) < bestGap) {
+                    bestSide = side;
+                    best = before;
+                    bestGap = day - side.day(before);
+                }
+                int after = side.nextFree(at);
+                if (after < side.size() && side.day(after) - day <= MAX_DAYS_APART && side.day(after) - day < bestGap) {
+                    bestSide = side;
+                    best = after;
+                    bestGap = side.day(after) - day;
+                }
+            }
+            if (bestSide != null) {
+                matched[inRow] = true;
+                matched[bestSide.take(best)] = true;
+            }
+        }
+    }
+
+    // One day-sorted outflow list per account, ordered by account id so ties resolve the same way every run
+    private static List<Outflows> splitByAccount(Bucket b, int[] accountIds) {
+        Map<Integer, long[]> grouped = new TreeMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < b.outCount; i++) {
+            int account = accountIds[(int) b.outs[i]];
+            int count = counts.getOrDefault(account, 0);
+            grouped.put(account, append(grouped.get(account), count, b.outs[i]));
+            counts.put(account, count + 1);
+        }
+        List<Outflows> out = new ArrayList<>(grouped.size());
+        for (Map.Entry<Integer, long[]> e : grouped.entrySet()) {
+            long[] sorted = Arrays.copyOf(e.getValue(), counts.get(e.getKey()));
+            Arrays.sort(sorted);
+            out.add(new Outflows(e.getKey(), sorted));
+        }
+        return out;
+    }
+
+    private static long[] append(long[] arr, int size, long value) {
+        if (arr == null) {
+            arr = new long[4];
+        } else if (size == arr.length) {
+            arr = Arrays.copyOf(arr, size * 2);
+        }
+        arr[size] = value;
+        return arr;
+    }
+
+    private static class Bucket {
+        long[] outs;
+        int outCount;
+        long[] ins;
+        int inCount;
+    }
+
+    /** Unmatched outflows of one account for one amount, with free-slot pointers over a day-sorted array. */
+    private static class Outflows {
+        final int account;
+        final long[] packed;   // (epochDay << 32) | row, sorted
+        final int[] next;      // next[i]: smallest free index >= i (size() when none)
+        final int[] prev;      // prev[i + 1]: largest free index <= i (-1 when none)
+
+        Outflows(int account, long[] packed) {
+            this.account = account;
+            this.packed = packed;
+            this.next = new int[packed.length + 1];
+            this.prev = new int[packed.length + 1];
+            for (int i = 0; i <= packed.length; i++) {
+                next[i] = i;
+                prev[i] = i - 1;
+            }
+        }
+
+        int size() {
+            return packed.length;
+        }
+
+        long day(int i) {
+            return packed[i] >> 32;
+        }
+
+        int firstOnOrAfter(long day) {
+            int lo = 0;
+            int hi = packed.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if ((packed[mid] >> 32) < day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        int nextFree(int i) {
+            int root = i;
+            while (next[root] != root) root = next[root];
+            while (next[i] != root) {
+                int up = next[i];
+                next[i] = root;
+                i = up;
+            }
+            return root;
+        }
+
+        int prevFree(int i) {
+            if (i < 0) return -1;
+            int root = i + 1;
+            while (prev[root] != root - 1) root = prev[root] + 1;
+            int slot = i + 1;
+            while (prev[slot] != root - 1) {
+                int up = prev[slot] + 1;
+                prev[slot] = root - 1;
+                slot = up;
+            }
+            return root - 1;
+        }
+
+        /** Marks index i as used and returns its row. */
+        int take(int i) {
+            next[i] = i + 1;
+            prev[i + 1] = i - 1;
+            return (int) packed[i];
+        }
+    }
+}
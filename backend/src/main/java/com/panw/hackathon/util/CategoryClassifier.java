@@ -0,0 +1,216 @@
+package com.panw.hackathon.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Rule-based mapping of raw export categories and merchant names to the canonical
+ * categories used by ForecastService (e.g. "FOOD & DRINK" -> Dining, "LYFT *RIDE" -> Rideshare).
+ *
+ * Rules file format (one canonical category per line):
+ *   Dining = alias: food & drink, alias: restaurants & bars, chipotle, starbucks, doordash
+ * Entries prefixed with "alias:" are matched against the whole category column
+ * (case-insensitive); the rest are keywords searched for with an Aho-Corasick automaton,
+ * longest keyword wins. A non-blank category the rules don't know is only matched against
+ * keywords itself and otherwise passes through unchanged; merchant keywords are used only
+ * when the category column is blank or a placeholder, so they never override what the export says.
+ * Placeholders are listed on a "(blank) = uncategorized, other, misc" line.
+ *
+ * Loaded from the CATEGORY_RULES file when set, otherwise from category-rules.txt on the classpath.
+ */
+public class CategoryClassifier {
+
+    private static final String DEFAULT_RESOURCE = "/category-rules.txt";
+    private static final String PLACEHOLDER_TARGET = "(blank)";
+    private static final String USE_MERCHANT = ""; // category-cache marker for blank/placeholder categories
+    private static final int MAX_CACHE_SIZE = 50_000;
+
+    private static volatile CategoryClassifier defaultInstance;
+
+    private final Map<String, String> canonical = new HashMap<>();   // lower-case name -> canonical
+    private final Map<String, String> aliases = new HashMap<>();     // lower-case alias -> canonical
+    private final Set<String> placeholders = new HashSet<>();        // lower-case categories treated as blank
+    private final Node root = new Node();
+    private final Map<String, String> byCategoryCache = new ConcurrentHashMap<>();
+    private final Map<String, String> byMerchantCache = new ConcurrentHashMap<>();
+
+    private CategoryClassifier() {}
+
+    public static CategoryClassifier getDefault() {
+        CategoryClassifier c = defaultInstance;
+        if (c == null) {
+            synchronized (CategoryClassifier.class) {
+                c = defaultInstance;
+                if (c == null) {
+                    c = loadDefault();
+                    defaultInstance = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    public static CategoryClassifier fromRules(Reader rules) throws IOException {
+        CategoryClassifier c = new CategoryClassifier();
+        try (BufferedReader br = new BufferedReader(rules)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                c.addRuleLine(line);
+            }
+        }
+        c.buildFailureLinks();
+        return c;
+    }
+
+    private static CategoryClassifier loadDefault() {
+        String path = System.getenv("CATEGORY_RULES");
+        try {
+            if (path != null && !path.isBlank()) {
+                return fromRules(Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8));
+            }
+            InputStream in = CategoryClassifier.class.getResourceAsStream(DEFAULT_RESOURCE);
+            if (in == null) {
+                return fromRules(new java.io.StringReader(""));
+            }
+            return fromRules(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load category rules", e);
+        }
+    }
+
+    /**
+     * Returns the canonical category for a row. Falls back to the trimmed raw category
+     * when no rule applies, so unknown categories still behave as before.
+     */
+    public String classify(String category, String merchant) {
+        String cat = category == null ? "" : category.trim();
+        // Keyed on the category alone, so unique merchant strings don't churn the cache
+        String result = cached(byCategoryCache, cat, this::resolveCategory);
+        if (!result.isEmpty()) return result;
+
+        String mer = merchant == null ? "" : merchant.trim();
+        return cached(byMerchantCache, cat + '\u0000' + mer, k -> {
+            String byMerchant = longestMatch(mer.toLowerCase(Locale.ROOT));
+            return byMerchant != null ? byMerchant : cat;
+        });
+    }
+
+    private static String cached(Map<String, String> cache, String key, Function<String, String> compute) {
+        String hit = cache.get(key);
+        if (hit != null) return hit;
+        String result = compute.apply(key);
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, result);
+        return result;
+    }
+
+    private String resolveCategory(String cat) {
+        String lowerCat = cat.toLowerCase(Locale.ROOT);
+        if (cat.isEmpty() || placeholders.contains(lowerCat)) return USE_MERCHANT;
+        String exact = canonical.get(lowerCat);
+        if (exact != null) return exact;
+        String alias = aliases.get(lowerCat);
+        if (alias != null) return alias;
+        String byCategory = longestMatch(lowerCat);
+        return byCategory != null ? byCategory : cat;
+    }
+
+    private void addRuleLine(String line) {
+        String s = line.trim();
+        if (s.isEmpty() || s.startsWith("#")) return;
+        int eq = s.indexOf('=');
+        if (eq <= 0) return;
+        String target = s.substring(0, eq).trim();
+        if (target.isEmpty()) return;
+        if (PLACEHOLDER_TARGET.equals(target)) {
+            for (String raw : s.substring(eq + 1).split(",")) {
+                String term = raw.trim().toLowerCase(Locale.ROOT);
+                if (!term.isEmpty()) placeholders.add(term);
+            }
+            return;
+        }
+        canonical.put(target.toLowerCase(Locale.ROOT), target);
+        for (String raw : s.substring(eq + 1).split(",")) {
+            String term = raw.trim().toLowerCase(Locale.ROOT);
+            if (term.startsWith("alias:")) {
+                String a = term.substring("alias:".length()).trim();
+                if (!a.isEmpty()) aliases.put(a, target);
+            } else if (!term.isEmpty()) {
+                addKeyword(term, target);
+            }
+        }
+    }
+
+    private void addKeyword(String keyword, String target) {
+        Node n = root;
+        for (int i = 0; i < keyword.length(); i++) {
+            n = n.children.computeIfAbsent(keyword.charAt(i), k -> new Node());
+        }
+        n.category = target;
+        n.length = keyword.length();
+    }
+
+    private void buildFailureLinks() {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node n = queue.poll();
+            for (Map.Entry<Character, Node> e : n.children.entrySet()) {
+                char ch = e.getKey();
+                Node child = e.getValue();
+                Node f = n.fail;
+                while (f != null && !f.children.containsKey(ch)) f = f.fail;
+                child.fail = f == null ? root : f.children.get(ch);
+                child.output = child.fail.category != null ? child.fail : child.fail.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    // Scans text once; only keywords that start and end on a word boundary count.
+    private String longestMatch(String text) {
+        if (text.isEmpty() || root.children.isEmpty()) return null;
+        String best = null;
+        int bestLen = 0;
+        Node n = root;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            while (n != root && !n.children.containsKey(ch)) n = n.fail;
+            n = n.children.getOrDefault(ch, root);
+            for (Node m = n.category != null ? n : n.output; m != null; m = m.output) {
+                int start = i - m.length + 1;
+                if (m.length > bestLen && isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    best = m.category;
+                    bestLen = m.length;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean isBoundary(String text, int idx) {
+        return idx < 0 || idx >= text.length() || !Character.isLetterOrDigit(text.charAt(idx));
+    }
+
+    private static class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        Node fail;
+        Node output; // next node on the failure chain that ends a keyword
+        String category;
+        int length;
+    }
+}
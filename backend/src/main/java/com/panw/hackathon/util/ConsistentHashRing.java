@@ -0,0 +1,48 @@
+package com.panw.hackathon.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes. Adding or removing a node only
+ * moves the keys on that node's arcs (about 1/N of them); build a new ring to change membership.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final List<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public String ownerOf(String key) {
+        if (ring.isEmpty()) return null;
+        Map.Entry<Long, String> e = ring.ceilingEntry(hash(key));
+        return e != null ? e.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("MD5").digest(s.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (d[i] & 0xff);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
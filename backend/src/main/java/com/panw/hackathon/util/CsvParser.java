@@ -18,7 +18,13 @@ import java.util.List;
 public class CsvParser {
 
     public static List<Transaction> parseTransactions(MultipartFile file) throws IOException {
+        return parseTransactions(file, Integer.MAX_VALUE);
+    }
+
+    // Stops reading as soon as the row cap is exceeded instead of materializing the whole file
+    public static List<Transaction> parseTransactions(MultipartFile file, int maxRows) throws IOException {
         List<Transaction> list = new ArrayList<>();
+        CategoryClassifier classifier = CategoryClassifier.getDefault();
         DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyy-MM-dd"); // default
         CSVFormat format = CSVFormat.DEFAULT.builder()
             .setHeader()
@@ -28,11 +34,14 @@ public class CsvParser {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
              CSVParser parser = new CSVParser(reader, format)) {
             for (CSVRecord record : parser) {
+                if (list.size() >= maxRows) {
+                    throw new RowLimitExceededException(maxRows);
+                }
                 String dateStr = get(record, "date");
                 LocalDate date = parseDate(dateStr, df);
-                double amount = Double.parseDouble(get(record, "amount"));
+                double amount = parseAmount(get(record, "amount"), record.getRecordNumber());
                 String merchant = get(record, "merchant");
-                String category = get(record, "category");
+                String category = classifier.classify(get(record, "category"), merchant);
                 String account = get(record, "account");
 
                 list.add(new Transaction(date, amount, merchant, category, account));
@@ -46,6 +55,14 @@ public class CsvParser {
         return v == null ? "" : v;
     }
 
+    private static double parseAmount(String val, long rowNumber) {
+        try {
+            return Double.parseDouble(val);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid amount on row " + rowNumber + ": '" + val + "'.");
+        }
+    }
+
     private static LocalDate parseDate(String val, DateTimeFormatter defaultFmt) {
         String s = val == null ? "" : val.trim();
         if (s.isEmpty()) return LocalDate.now();
@@ -0,0 +1,8 @@
+package com.panw.hackathon.util;
+
+/** A client-supplied goal, file or parameter failed validation; mapped to HTTP 400. */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
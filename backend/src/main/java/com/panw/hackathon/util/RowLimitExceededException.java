@@ -0,0 +1,7 @@
+package com.panw.hackathon.util;
+
+public class RowLimitExceededException extends RuntimeException {
+    public RowLimitExceededException(int maxRows) {
+        super("Transactions file exceeds the limit of " + maxRows + " rows.");
+    }
+}
@@ -0,0 +1,112 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.model.BaselineAggregates;
+import com.panw.hackathon.model.LeverPlan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalSolverTest {
+
+    private static final int[] CUT_LEVELS = {0, 10, 20, 30, 50};
+
+    private final GoalSolver solver = new GoalSolver();
+
+    @Test
+    void onTrackGoalYieldsSingleZeroPlan() {
+        BaselineAggregates baseline = baseline(2000, Map.of("Dining", 300.0));
+
+        List<LeverPlan> plans = solver.solve(baseline, new BigDecimal("6000"), 6);
+
+        assertEquals(1, plans.size());
+        LeverPlan plan = plans.get(0);
+        assertEquals(0, plan.getExtensionMonths());
+        assertEquals(0, plan.getIncomeBoost().signum());
+        assertEquals(0, plan.getTotalCutPerMonth().signum());
+        assertTrue(plan.getCutPercentByCategory().isEmpty());
+    }
+
+    @Test
+    void unreachableGoalYieldsNoPlans() {
+        BaselineAggregates baseline = baseline(-5000, Map.of("Dining", 100.0));
+
+        assertTrue(solver.solve(baseline, new BigDecimal("1000000"), 12).isEmpty());
+    }
+
+    @Test
+    void plansMatchBruteForceParetoSet() {
+        double p50 = 900;
+        Map<String, Double> medians = new TreeMap<>(Map.of("Dining", 200.0, "Shopping", 100.0, "Rent", 1500.0));
+        BigDecimal target = new BigDecimal("12000");
+        int months = 12;
+
+        List<LeverPlan> plans = solver.solve(baseline(p50, medians), target, months);
+
+        Set<List<Integer>> expected = bruteForcePareto(p50, List.of(200.0, 100.0), target, months);
+        Set<List<Integer>> actual = new HashSet<>();
+        for (LeverPlan plan : plans) {
+            int cost = plan.getCutPercentByCategory().values().stream().mapToInt(p -> p / 10).sum();
+            actual.add(List.of(plan.getExtensionMonths(), cost, plan.getIncomeBoost().intValue()));
+
+            // the walk back through the knapsack choices must add up to what the plan reports
+            assertFalse(plan.getCutPercentByCategory().containsKey("Rent"));
+            BigDecimal cuts = plan.getCutAmountByCategory().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, cuts.compareTo(plan.getTotalCutPerMonth()));
+            BigDecimal monthly = BigDecimal.valueOf(p50).add(plan.getIncomeBoost()).add(cuts);
+            assertEquals(0, monthly.compareTo(plan.getProjectedMonthlyToGoal()));
+            assertTrue(monthly.compareTo(plan.getNewRequiredMonthly()) >= 0);
+            assertEquals(months + plan.getExtensionMonths(), plan.getNewMonthsToDeadline().intValue());
+        }
+        assertEquals(expected.size(), plans.size());
+        assertEquals(expected, actual);
+    }
+
+    // (extension, cut cost in 10% units, income boost) triples that no other feasible triple dominates
+    private static Set<List<Integer>> bruteForcePareto(double p50, List<Double> medians, BigDecimal target, int months) {
+        Map<Integer, Double> bestSavingsByCost = new HashMap<>();
+        for (int a : CUT_LEVELS) {
+            for (int b : CUT_LEVELS) {
+                double savings = medians.get(0) * a / 100.0 + medians.get(1) * b / 100.0;
+                bestSavingsByCost.merge((a + b) / 10, savings, Math::max);
+            }
+        }
+        List<int[]> feasible = new ArrayList<>();
+        for (Map.Entry<Integer, Double> e : bestSavingsByCost.entrySet()) {
+            for (int income = 0; income <= 500; income += 50) {
+                for (int ext = 0; ext <= 36; ext++) {
+                    BigDecimal required = target.divide(BigDecimal.valueOf(months + ext), 2, RoundingMode.HALF_UP);
+                    if (BigDecimal.valueOf(p50 + income + e.getValue()).compareTo(required) >= 0) {
+                        feasible.add(new int[]{ext, e.getKey(), income});
+                    }
+                }
+            }
+        }
+        Set<List<Integer>> pareto = new HashSet<>();
+        for (int[] x : feasible) {
+            boolean dominated = false;
+            for (int[] y : feasible) {
+                if (y[0] <= x[0] && y[1] <= x[1] && y[2] <= x[2] && (y[0] < x[0] || y[1] < x[1] || y[2] < x[2])) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) pareto.add(List.of(x[0], x[1], x[2]));
+        }
+        return pareto;
+    }
+
+    private static BaselineAggregates baseline(double p50, Map<String, Double> monthlySpend) {
+        Map<String, List<Double>> perMonth = new HashMap<>();
+        monthlySpend.forEach((category, amount) -> perMonth.put(category, List.of(amount, amount, amount)));
+        BaselineAggregates baseline = new BaselineAggregates();
+        baseline.setCategorySpendPerMonth(perMonth);
+        baseline.setP10(p50);
+        baseline.setP50(p50);
+        baseline.setP90(p50);
+        return baseline;
+    }
+}
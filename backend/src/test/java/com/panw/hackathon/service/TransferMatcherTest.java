@@ -0,0 +1,100 @@
+package com.panw.hackathon.service;
+
+import com.panw.hackathon.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferMatcherTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    private final TransferMatcher matcher = new TransferMatcher();
+
+    @Test
+    void removesPairAcrossAccounts() {
+        Transaction out = txn(0, -500, "checking");
+        Transaction in = txn(1, 500, "savings");
+        Transaction coffee = txn(1, -4.5, "checking");
+
+        assertEquals(List.of(coffee), matcher.excludeTransfers(List.of(out, in, coffee)));
+    }
+
+    @Test
+    void keepsPairWithinOneAccount() {
+        List<Transaction> txns = List.of(txn(0, -500, "checking"), txn(0, 500, "checking"), txn(0, -20, "card"));
+
+        assertEquals(txns, matcher.excludeTransfers(txns));
+    }
+
+    @Test
+    void matchesUpToThreeDaysApartOnly() {
+        List<Transaction> threeDays = List.of(txn(0, -300, "checking"), txn(3, 300, "savings"));
+        List<Transaction> fourDays = List.of(txn(0, -300, "checking"), txn(4, 300, "savings"));
+
+        assertTrue(matcher.excludeTransfers(threeDays).isEmpty());
+        assertEquals(fourDays, matcher.excludeTransfers(fourDays));
+    }
+
+    @Test
+    void picksClosestDatedOutflow() {
+        Transaction early = txn(-2, -250, "checking");
+        Transaction close = txn(1, -250, "card");
+        Transaction in = txn(0, 250, "savings");
+
+        assertEquals(List.of(early), matcher.excludeTransfers(List.of(early, close, in)));
+    }
+
+    @Test
+    void comparesAmountsInCents() {
+        List<Transaction> sameCents = List.of(txn(0, -100.004, "checking"), txn(0, 100.00, "savings"));
+        List<Transaction> offByACent = List.of(txn(0, -100.01, "checking"), txn(0, 100.00, "savings"));
+
+        assertTrue(matcher.excludeTransfers(sameCents).isEmpty());
+        assertEquals(offByACent, matcher.excludeTransfers(offByACent));
+    }
+
+    @Test
+    void returnsInputUnchangedForSingleAccount() {
+        List<Transaction> txns = List.of(txn(0, -500, "checking"), txn(1, 500, "checking"));
+
+        assertSame(txns, matcher.excludeTransfers(txns));
+    }
+
+    @Test
+    void keepsOriginalOrder() {
+        Transaction a = txn(0, -40, "checking");
+        Transaction out = txn(1, -900, "checking");
+        Transaction b = txn(2, 1200, "checking");
+        Transaction in = txn(2, 900, "savings");
+        Transaction c = txn(3, -15, "savings");
+
+        assertEquals(List.of(a, b, c), matcher.excludeTransfers(List.of(a, out, b, in, c)));
+    }
+
+    @Test
+    void denseBucketWithinOneAccountStaysFast() {
+        // one amount, many rows per day, nearly all on the same account: every inflow's date window
+        // is full of outflows it may not take, which must not be rescanned per inflow
+        List<Transaction> txns = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            txns.add(txn(i % 5, -25, "checking"));
+            txns.add(txn(i % 5, 25, "checking"));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            txns.add(txn(i % 5, -25, "savings"));
+        }
+
+        List<Transaction> kept = assertTimeout(Duration.ofSeconds(10), () -> matcher.excludeTransfers(txns));
+        assertEquals(txns.size() - 2_000, kept.size());
+    }
+
+    private static Transaction txn(int dayOffset, double amount, String account) {
+        return new Transaction(DAY.plusDays(dayOffset), amount, "merchant", "Other", account);
+    }
+}